@@ -0,0 +1,152 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.ChatGptTask3Application;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.FollowGraphService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostBodyCodec;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.ShardRouter;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.UserLookupIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against an in-memory H2 database (PostgreSQL mode) and seeds one author
+ * with {@code followers} followers, {@code postsPerUser} posts and {@code likesPerPost} likes on
+ * every post. Followers beyond the first {@code likesPerPost} have not liked anything. Every other
+ * post has a body longer than the preview, stored in {@code post_bodies}. With sharding enabled,
+ * ids are snowflake ids and rows are written to the shard that owns them, as the application does.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    private static final String LONG_BODY = "A body long enough to be cut to a preview and stored separately. ".repeat(20);
+
+    @Param({"100", "10000"})
+    public int followers;
+
+    @Param({"10", "1000"})
+    public int postsPerUser;
+
+    @Param({"10"})
+    public int likesPerPost;
+
+    public ConfigurableApplicationContext context;
+    public long authorId;
+    public long[] followerIds;
+    public long[] postIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ChatGptTask3Application.class, H2Compatibility.class)
+                .profiles("benchmark")
+                .run();
+        seed(bean(JdbcTemplate.class), bean(ShardRouter.class), bean(PostBodyCodec.class));
+        bean(FollowGraphService.class).load();
+        bean(UserLookupIndex.class).load();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc, ShardRouter shardRouter, PostBodyCodec postBodyCodec) {
+        List<Object[]> users = new ArrayList<>(followers + 1);
+        users.add(new Object[]{"author", "author@example.com"});
+        for (int i = 0; i < followers; i++) {
+            users.add(new Object[]{"follower" + i, "follower" + i + "@example.com"});
+        }
+        long[] userIds = insertUsers(jdbc, shardRouter, users);
+        authorId = userIds[0];
+        followerIds = Arrays.copyOfRange(userIds, 1, userIds.length);
+
+        // follow edges live on the follower's shard
+        Map<Integer, List<Long>> followersByShard = shardRouter.groupByShard(
+                Arrays.stream(followerIds).boxed().toList(), shardRouter::shardOfUser);
+        followersByShard.forEach((shard, ids) -> shardRouter.writeOnShard(shard, () -> jdbc.batchUpdate(
+                "insert into user_following (follower_id, following_id) values (?, ?)",
+                ids.stream().map(followerId -> new Object[]{followerId, authorId}).toList())));
+
+        // posts, their bodies and their likes live on the author's shard
+        shardRouter.writeOnShard(shardRouter.shardOfUser(authorId), () -> {
+            seedPosts(jdbc, shardRouter, postBodyCodec);
+            return null;
+        });
+    }
+
+    private long[] insertUsers(JdbcTemplate jdbc, ShardRouter shardRouter, List<Object[]> users) {
+        if (!shardRouter.enabled()) {
+            jdbc.batchUpdate("insert into users (username, email) values (?, ?)", users);
+            return jdbc.queryForList("select id from users order by id", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+        }
+        long[] ids = new long[users.size()];
+        List<Integer> indexes = new ArrayList<>(users.size());
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = shardRouter.snowflakeIds().nextId(0);
+            indexes.add(i);
+        }
+        shardRouter.groupByShard(indexes, i -> shardRouter.shardOfUser(ids[i])).forEach((shard, group) ->
+                shardRouter.writeOnShard(shard, () -> jdbc.batchUpdate(
+                        "insert into users (id, username, email) values (?, ?, ?)",
+                        group.stream().map(i -> new Object[]{ids[i], users.get(i)[0], users.get(i)[1]}).toList())));
+        return ids;
+    }
+
+    private void seedPosts(JdbcTemplate jdbc, ShardRouter shardRouter, PostBodyCodec postBodyCodec) {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        String[] bodies = new String[postsPerUser];
+        List<Object[]> posts = new ArrayList<>(postsPerUser);
+        for (int i = 0; i < postsPerUser; i++) {
+            bodies[i] = i % 2 == 0 ? "Body of post " + i : "Body of post " + i + ". " + LONG_BODY;
+            String preview = postBodyCodec.preview(bodies[i]);
+            Object[] row = {"Post " + i, preview, !preview.equals(bodies[i]), authorId, start.plusSeconds(i)};
+            if (shardRouter.enabled()) {
+                long id = shardRouter.snowflakeIds().nextId(shardRouter.shardOfUser(authorId));
+                row = new Object[]{id, row[0], row[1], row[2], row[3], row[4]};
+            }
+            posts.add(row);
+        }
+        jdbc.batchUpdate(shardRouter.enabled()
+                ? "insert into posts (id, title, preview, truncated, author_id, created_at) values (?, ?, ?, ?, ?, ?)"
+                : "insert into posts (title, preview, truncated, author_id, created_at) values (?, ?, ?, ?, ?)", posts);
+        postIds = jdbc.queryForList("select id from posts where author_id = ? order by created_at", Long.class, authorId)
+                .stream().mapToLong(Long::longValue).toArray();
+
+        List<Object[]> storedBodies = new ArrayList<>();
+        for (int i = 0; i < postIds.length; i++) {
+            if (!postBodyCodec.preview(bodies[i]).equals(bodies[i])) {
+                PostBody body = postBodyCodec.encode(postIds[i], bodies[i]);
+                storedBodies.add(new Object[]{body.getPostId(), body.getEncoding().name(), body.getContent()});
+            }
+        }
+        jdbc.batchUpdate("insert into post_bodies (post_id, encoding, content) values (?, ?, ?)", storedBodies);
+
+        int likers = Math.min(likesPerPost, followerIds.length);
+        List<Object[]> likes = new ArrayList<>(postIds.length * likers);
+        for (long postId : postIds) {
+            for (int i = 0; i < likers; i++) {
+                likes.add(new Object[]{followerIds[i], postId});
+            }
+        }
+        jdbc.batchUpdate("insert into likes (id, user_id, post_id, post_created_at) " +
+                "select nextval('likes_id_seq'), ?, p.id, p.created_at from posts p where p.id = ?", likes);
+        jdbc.update("update posts set like_count = ? where author_id = ?", likers, authorId);
+    }
+}
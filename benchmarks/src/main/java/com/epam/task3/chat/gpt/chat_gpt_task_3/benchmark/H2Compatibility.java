@@ -0,0 +1,103 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Adapts the application's PostgreSQL statements to the H2 database the benchmarks run on. H2 only
+ * accepts a bare {@code on conflict do nothing}, so the conflict target is dropped before a statement
+ * is prepared; with one unique key per table the two forms behave the same. The outbox relay's advisory
+ * lock is stood in for by a function that always grants it, as the benchmarks run a single relay.
+ */
+@Configuration(proxyBeanMethods = false)
+public class H2Compatibility {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Pattern CONFLICT_TARGET = Pattern.compile("on conflict \\([^)]*\\) do nothing",
+            Pattern.CASE_INSENSITIVE);
+
+    @Bean
+    public static BeanPostProcessor h2CompatibleDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                createAdvisoryLockAlias(dataSource);
+                return new RewritingDataSource(dataSource);
+            }
+        };
+    }
+
+    public static boolean tryAdvisoryLock(long key) {
+        return true;
+    }
+
+    private static void createAdvisoryLockAlias(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create alias if not exists pg_try_advisory_xact_lock for \""
+                    + H2Compatibility.class.getName() + ".tryAdvisoryLock\"");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not prepare the H2 database", e);
+        }
+    }
+
+    private static String rewrite(String sql) {
+        return CONFLICT_TARGET.matcher(sql).replaceAll("on conflict do nothing");
+    }
+
+    private static Connection rewriting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(H2Compatibility.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (STATEMENT_METHODS.contains(method.getName()) && args[0] instanceof String sql) {
+                        args[0] = rewrite(sql);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static final class RewritingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        private RewritingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return rewriting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return rewriting(super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.UserSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private CursorPage<PostSummary> postPage;
+    private UserSummary user;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        objectMapper = state.bean(ObjectMapper.class);
+        postPage = state.bean(PostService.class).getPostsByUser(state.authorId, null, 100);
+        user = new UserSummary(state.authorId, "author", "author@example.com");
+    }
+
+    @Benchmark
+    public byte[] serializePostPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+}
@@ -0,0 +1,50 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LikeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LikeServiceBenchmark {
+    private LikeService likeService;
+    private long userId;
+    private long likedPostId;
+    private long[] postIds;
+    private int next;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        likeService = state.bean(LikeService.class);
+        userId = state.followerIds[state.followerIds.length - 1];
+        likedPostId = state.postIds[0];
+        postIds = state.postIds;
+    }
+
+    @Benchmark
+    public LikeResult likeThenUnlike() {
+        long postId = postIds[next++ % postIds.length];
+        likeService.likePost(userId, postId);
+        return likeService.unlikePost(userId, postId);
+    }
+
+    @Benchmark
+    public LikeResult likeAlreadyLiked(ApplicationState state) {
+        return likeService.likePost(state.followerIds[0], likedPostId);
+    }
+}
@@ -0,0 +1,67 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+    // the deep page is read after at least this many pages, whatever postsPerUser the state was seeded with
+    private static final int MIN_PAGES = 5;
+
+    private PostService postService;
+    private long authorId;
+    private String deepCursor;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        postService = state.bean(PostService.class);
+        authorId = state.authorId;
+
+        for (int i = state.postIds.length; i <= MIN_PAGES * PAGE_SIZE; i++) {
+            postService.createPost(authorId, "Paging post " + i, "Body of paging post " + i);
+        }
+        CursorPage<PostSummary> page = postService.getPostsByUser(authorId, null, PAGE_SIZE);
+        while (page.nextCursor() != null) {
+            deepCursor = page.nextCursor();
+            page = postService.getPostsByUser(authorId, deepCursor, PAGE_SIZE);
+        }
+        if (deepCursor == null) {
+            throw new IllegalStateException("Author " + authorId + " has a single page of posts, nothing deep to read");
+        }
+    }
+
+    @Benchmark
+    public Post createPost() {
+        return postService.createPost(authorId, "Benchmark post", "Body of a benchmark post");
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> getPostsByUserFirstPage() {
+        return postService.getPostsByUser(authorId, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> getPostsByUserDeepPage() {
+        return postService.getPostsByUser(authorId, deepCursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.benchmark;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private UserService userService;
+    private long[] followerIds;
+    private int next;
+
+    @Setup
+    public void setUp(ApplicationState state) {
+        userService = state.bean(UserService.class);
+        followerIds = state.followerIds;
+    }
+
+    @Benchmark
+    public void followUser() {
+        int i = next++;
+        long userId = followerIds[i % followerIds.length];
+        long targetUserId = followerIds[(i / followerIds.length + 1 + i) % followerIds.length];
+        if (userId != targetUserId) {
+            userService.followUser(userId, targetUserId);
+        }
+    }
+}
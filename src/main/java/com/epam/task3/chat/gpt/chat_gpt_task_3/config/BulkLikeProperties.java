@@ -0,0 +1,9 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "likes.bulk")
+public record BulkLikeProperties(
+        @DefaultValue("1000") int maxOperations) {
+}
@@ -0,0 +1,33 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets a read-only unit of work opt out of the replicas. Connections are fetched lazily, so calling
+ * {@link #onPrimary(Supplier)} inside a {@code @Transactional(readOnly = true)} method still works
+ * as long as no statement has run yet.
+ */
+public final class DataSourceRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            } else {
+                PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
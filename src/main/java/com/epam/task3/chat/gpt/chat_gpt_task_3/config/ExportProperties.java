@@ -0,0 +1,13 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "export")
+public record ExportProperties(
+        @DefaultValue("500") int fetchSize,
+        @DefaultValue("1000") int flushEvery,
+        @DefaultValue("1h") Duration timeout) {
+}
@@ -0,0 +1,19 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "feed")
+public record FeedProperties(
+        @DefaultValue("800") int timelineSize,
+        @DefaultValue("10000") long celebrityFollowerThreshold,
+        @DefaultValue("20") int defaultPageSize,
+        @DefaultValue("100") int maxPageSize) {
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
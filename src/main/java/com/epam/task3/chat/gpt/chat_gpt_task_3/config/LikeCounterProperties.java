@@ -0,0 +1,11 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "likes.counter")
+public record LikeCounterProperties(
+        @DefaultValue("100000") int maxCachedPosts,
+        @DefaultValue("10000") int maxCachedLikers,
+        @DefaultValue("1000") int reconcileBatchSize) {
+}
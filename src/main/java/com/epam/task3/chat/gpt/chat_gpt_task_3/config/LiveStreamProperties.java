@@ -0,0 +1,14 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "posts.stream")
+public record LiveStreamProperties(
+        @DefaultValue("20000") int maxSubscribers,
+        @DefaultValue("256") int queueCapacity,
+        @DefaultValue("200") int maxWatchedPosts,
+        @DefaultValue("30m") Duration timeout) {
+}
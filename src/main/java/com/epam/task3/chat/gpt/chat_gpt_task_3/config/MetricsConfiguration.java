@@ -0,0 +1,58 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LikeCounterService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LiveStreamService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostSearchIndex;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.TrendingService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Service method timers, per-request statement counting and gauges for the in-memory stores.
+ * HTTP latency, Hikari pool, executor and Hibernate cache metrics come from Spring Boot's
+ * auto-configuration; their histograms are switched on in application.properties.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? QueryCounter.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder inMemoryStoreMetrics(PostSearchIndex postSearchIndex, TrendingService trendingService,
+                                            LiveStreamService liveStreamService, LikeCounterService likeCounterService) {
+        return registry -> {
+            Gauge.builder("posts.search.indexed", postSearchIndex, PostSearchIndex::size)
+                    .description("Posts held in the full-text index")
+                    .register(registry);
+            Gauge.builder("trending.tracked.posts", trendingService, TrendingService::trackedPosts)
+                    .description("Posts with a like window in the trending tracker")
+                    .register(registry);
+            Gauge.builder("posts.stream.subscriptions", liveStreamService, LiveStreamService::activeSubscriptions)
+                    .description("Open Server-Sent Events subscriptions")
+                    .register(registry);
+            Gauge.builder("likes.counter.cached.posts", likeCounterService, LikeCounterService::cachedPosts)
+                    .description("Posts with an in-memory like counter")
+                    .register(registry);
+        };
+    }
+}
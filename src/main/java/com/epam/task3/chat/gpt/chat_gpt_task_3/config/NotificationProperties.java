@@ -0,0 +1,27 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "notifications")
+public record NotificationProperties(
+        @DefaultValue("4") int workers,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("DISCARD_OLDEST") DropPolicy dropPolicy,
+        @DefaultValue("20") int defaultPageSize,
+        @DefaultValue("100") int maxPageSize) {
+
+    public enum DropPolicy {
+        DISCARD_NEWEST,
+        DISCARD_OLDEST,
+        CALLER_RUNS
+    }
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("memory") String sink,
+        @DefaultValue("10000") int memoryCapacity,
+        @DefaultValue("outbox-events.ndjson") String filePath,
+        @DefaultValue("1s") Duration commitLag) {
+}
@@ -0,0 +1,25 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@ConfigurationProperties(prefix = "partitioning")
+public record PartitioningProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("31d") Duration recentWindow,
+        @DefaultValue("3") int premakeMonths,
+        @DefaultValue("0") int retentionMonths,
+        @DefaultValue("archive") String archiveSchema) {
+
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Lower {@code created_at} bound that keeps a listing ending at {@code upper} inside the recent partitions.
+     */
+    public LocalDateTime recentSince(LocalDateTime upper) {
+        return enabled ? upper.minus(recentWindow) : BEGINNING;
+    }
+}
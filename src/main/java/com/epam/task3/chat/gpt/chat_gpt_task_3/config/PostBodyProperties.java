@@ -0,0 +1,10 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "posts.body")
+public record PostBodyProperties(
+        @DefaultValue("280") int previewLength,
+        @DefaultValue("6") int compressionLevel) {
+}
@@ -0,0 +1,93 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Counts JDBC statements prepared on the current thread between {@link #start()} and {@link #stop()}.
+ * Used to report per-request query counts so N+1 regressions show up in metrics and response headers.
+ * Data sources wrapped on top of each other, like a pool bean behind a routing proxy, count a statement once.
+ */
+public final class QueryCounter {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+    // statements counted so far, and how many counting connections the current call has passed through
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new int[2]);
+    }
+
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return dataSource instanceof CountingDataSource ? dataSource : new CountingDataSource(dataSource);
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    int[] count = STATEMENT_METHODS.contains(method.getName()) ? COUNT.get() : null;
+                    if (count != null && count[1]++ == 0) {
+                        count[0]++;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (count != null) {
+                            count[1]--;
+                        }
+                    }
+                });
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        // keeps the pool's close() reachable for the container's inferred destroy method
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
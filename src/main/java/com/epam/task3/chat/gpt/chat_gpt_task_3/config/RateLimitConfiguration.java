@@ -0,0 +1,34 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.controller.RateLimitInterceptor;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.AdmissionController;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+    private final RateLimiter rateLimiter;
+    private final AdmissionController admissionController;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitConfiguration(RateLimiter rateLimiter, AdmissionController admissionController,
+                                  MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.admissionController = admissionController;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, admissionController, meterRegistry));
+    }
+}
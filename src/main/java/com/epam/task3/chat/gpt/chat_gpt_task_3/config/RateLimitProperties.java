@@ -0,0 +1,25 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("65536") int tableSize,
+        @DefaultValue Map<String, Bucket> buckets,
+        @DefaultValue("100ms") Duration shedPoolWait,
+        @DefaultValue("1s") Duration shedLatency,
+        @DefaultValue("0.05") double minAdmitRatio) {
+
+    public record Bucket(double permitsPerSecond, int burst) {
+        public Bucket {
+            if (!(permitsPerSecond > 0)) {
+                throw new IllegalArgumentException("Rate limit permits-per-second must be positive");
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary.
+ * {@link LazyConnectionDataSourceProxy} defers fetching the physical connection until the first statement,
+ * by which point the transaction manager has flagged it read-only.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadWriteRoutingConfiguration {
+
+    // a bean of its own, so the Hikari metrics and the datasource health check pick it up like the default pool
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                   DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                   MeterRegistry meterRegistry) {
+        ReplicaPool replicaPool = new ReplicaPool(primaryDataSource, dataSourceProperties, replicaProperties,
+                meterRegistry);
+        Gauge.builder("datasource.replicas.healthy", replicaPool, ReplicaPool::healthyReplicas)
+                .description("Replicas that passed the last health check")
+                .register(meterRegistry);
+        return replicaPool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, ReplicaPool replicaPool) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaPool.readDataSource());
+        return dataSource;
+    }
+}
@@ -0,0 +1,124 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica connection pools; the primary pool is a bean of its own and only borrowed here as
+ * the fallback for reads. Reads are balanced round-robin over the replicas
+ * that passed the last health check; a replica that fails to hand out a connection is marked down
+ * until the next check, and when no replica is usable reads fall back to the primary.
+ */
+public class ReplicaPool {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final int timeoutSeconds;
+    private final DataSource readDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return readConnection();
+        }
+    };
+
+    public ReplicaPool(DataSource primary, DataSourceProperties primaryProperties, ReplicaProperties replicaProperties,
+                       MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.timeoutSeconds = (int) Math.max(1, replicaProperties.connectionTimeout().toSeconds());
+        List<String> urls = replicaProperties.urls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(replicaProperties.username() != null
+                    ? replicaProperties.username() : primaryProperties.determineUsername());
+            replica.setPassword(replicaProperties.password() != null
+                    ? replicaProperties.password() : primaryProperties.determinePassword());
+            replica.setMaximumPoolSize(replicaProperties.maximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(replicaProperties.connectionTimeout().toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(replica));
+        }
+    }
+
+    public DataSource readDataSource() {
+        return readDataSource;
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is now {}", replica.dataSource.getPoolName(), healthy ? "up" : "down");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Connection readConnection() throws SQLException {
+        if (!DataSourceRouting.primaryRequired()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.healthy = false;
+                    log.warn("Replica {} failed, routing reads elsewhere: {}", replica.dataSource.getPoolName(), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
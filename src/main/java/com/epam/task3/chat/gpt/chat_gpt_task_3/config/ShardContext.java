@@ -0,0 +1,41 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's connections are routed to. Like {@link DataSourceRouting}, it only has to be set
+ * before the first statement of a transaction, because connections are fetched lazily.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = enter(shard);
+        try {
+            return action.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static Integer enter(int shard) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        return previous;
+    }
+
+    public static void exit(Integer previous) {
+        if (previous == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(previous);
+        }
+    }
+
+    public static Integer current() {
+        return SHARD.get();
+    }
+}
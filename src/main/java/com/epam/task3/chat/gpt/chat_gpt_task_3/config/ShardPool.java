@@ -0,0 +1,64 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns one connection pool per shard and a {@link DataSource} that hands out connections of the shard
+ * in {@link ShardContext}, or of shard 0 when none is set.
+ */
+public class ShardPool {
+    private final List<HikariDataSource> shards = new ArrayList<>();
+    private final AbstractRoutingDataSource routingDataSource = new AbstractRoutingDataSource() {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ShardContext.current();
+        }
+    };
+
+    public ShardPool(HikariDataSource first, ShardingProperties shardingProperties, MeterRegistry meterRegistry) {
+        shards.add(first);
+        List<String> urls = shardingProperties.urls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setJdbcUrl(urls.get(i));
+            shard.setUsername(shardingProperties.username() != null ? shardingProperties.username() : first.getUsername());
+            shard.setPassword(shardingProperties.password() != null ? shardingProperties.password() : first.getPassword());
+            shard.setMaximumPoolSize(shardingProperties.maximumPoolSize());
+            shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(shard);
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(first);
+        routingDataSource.setLenientFallback(false);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    public DataSource dataSource() {
+        return routingDataSource;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,71 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.ShardedIdGenerator;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.ShardRouter;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.ShardRoutingAspect;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes connections to the shard in {@link ShardContext}. As with the read replicas, the physical connection is
+ * fetched lazily, so the shard chosen by {@link ShardRoutingAspect} before a transaction starts decides where it runs.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardPool shardPool(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties,
+                               ReplicaProperties replicaProperties, Environment environment,
+                               MeterRegistry meterRegistry) {
+        if (replicaProperties.enabled()) {
+            throw new IllegalStateException("sharding.enabled and datasource.replicas.enabled cannot be combined");
+        }
+        HikariDataSource first = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(first));
+        if (first.getPoolName() == null) {
+            first.setPoolName("shard-0");
+        }
+        return new ShardPool(first, shardingProperties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardPool shardPool) {
+        return new LazyConnectionDataSourceProxy(shardPool.dataSource());
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ObjectProvider<ShardRouter> shardRouter) {
+        return new ShardRoutingAspect(shardRouter);
+    }
+
+    @Bean
+    public SnowflakeIds snowflakeIds(ShardingProperties shardingProperties) {
+        return new SnowflakeIds(shardingProperties.workerId());
+    }
+
+    // Query cache entries are keyed by query and parameters only, so a result cached from one shard would be
+    // served for the same query on another. Entity caches stay on: ids are unique across shards.
+    @Bean
+    public HibernatePropertiesCustomizer shardedIdCustomizer(SnowflakeIds snowflakeIds) {
+        return properties -> {
+            properties.put(ShardedIdGenerator.SNOWFLAKE_IDS, snowflakeIds);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Shard 0 is {@code spring.datasource}; {@code urls} lists the additional shards. Shards are only ever appended:
+ * the hash ring names virtual nodes after the shard index, so adding one moves roughly {@code 1/N} of the users.
+ */
+@ConfigurationProperties(prefix = "sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("160") int virtualNodes,
+        @DefaultValue("0") int workerId) {
+
+    public int shardCount() {
+        return enabled ? urls.size() + 1 : 1;
+    }
+}
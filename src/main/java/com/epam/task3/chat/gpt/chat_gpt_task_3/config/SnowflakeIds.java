@@ -0,0 +1,69 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-ordered 63-bit ids: 41 bits of milliseconds since 2024-01-01, 6 bits of shard, 4 bits of worker and a 12-bit
+ * per-millisecond sequence. The shard bits let a post id be routed without a lookup. When the sequence runs out, or
+ * the wall clock steps back, the generator keeps counting from its last timestamp instead of blocking.
+ */
+public final class SnowflakeIds {
+    public static final int MAX_SHARDS = 1 << 6;
+    public static final int MAX_WORKERS = 1 << 4;
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = WORKER_SHIFT + 4;
+    private static final int TIMESTAMP_SHIFT = SHARD_SHIFT + 6;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Clock clock;
+    private final int workerId;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public SnowflakeIds(int workerId) {
+        this(workerId, Clock.systemUTC());
+    }
+
+    SnowflakeIds(int workerId, Clock clock) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + (MAX_WORKERS - 1));
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        long timestamp;
+        long next;
+        lock.lock();
+        try {
+            timestamp = Math.max(clock.millis() - EPOCH, lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    timestamp++;
+                }
+            } else {
+                sequence = 0;
+            }
+            lastTimestamp = timestamp;
+            next = sequence;
+        } finally {
+            lock.unlock();
+        }
+        return timestamp << TIMESTAMP_SHIFT | (long) shard << SHARD_SHIFT | (long) workerId << WORKER_SHIFT | next;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT) & (MAX_SHARDS - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "trending")
+public record TrendingProperties(
+        @DefaultValue("5m") Duration bucketSize,
+        @DefaultValue("288") int bucketCount,
+        @DefaultValue("1h") Duration halfLife,
+        @DefaultValue("50") int topK,
+        @DefaultValue("20000") int maxTrackedPosts) {
+
+    public int resolveLimit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return topK;
+        }
+        return Math.min(requested, topK);
+    }
+}
@@ -0,0 +1,11 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "users.index")
+public record UserIndexProperties(
+        @DefaultValue("1000000") int expectedUsers,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("100000") int maxCachedNames) {
+}
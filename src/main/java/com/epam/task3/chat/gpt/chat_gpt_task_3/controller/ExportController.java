@@ -0,0 +1,58 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ExportProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/export")
+public class ExportController {
+    private final ExportService exportService;
+    private final ExportProperties exportProperties;
+
+    @Autowired
+    public ExportController(ExportService exportService, ExportProperties exportProperties) {
+        this.exportService = exportService;
+        this.exportProperties = exportProperties;
+    }
+
+    @GetMapping(path = "/posts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "false") boolean includeLikeCounts,
+            @RequestParam(defaultValue = "false") boolean includeAuthorIds,
+            HttpServletRequest request) {
+        extendTimeout(request);
+        StreamingResponseBody body = out -> exportService.exportPosts(out, updatedSince, includeLikeCounts, includeAuthorIds);
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/likes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLikes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            HttpServletRequest request) {
+        extendTimeout(request);
+        StreamingResponseBody body = out -> exportService.exportLikes(out, updatedSince);
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    // only exports may outlive the default async request timeout
+    private void extendTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportProperties.timeout().toMillis());
+    }
+}
@@ -1,12 +1,19 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.BulkLikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeOperation;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeResult;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LikeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/likes")
 public class LikeController {
     private final LikeService likeService;
@@ -16,15 +23,36 @@ public class LikeController {
         this.likeService = likeService;
     }
 
+    @RateLimited("likes")
     @PostMapping("/{userId}/like/{postId}")
     public ResponseEntity<String> likePost(@PathVariable Long userId, @PathVariable Long postId) {
-        likeService.likePost(userId, postId);
-        return new ResponseEntity<>("Post liked successfully", HttpStatus.OK);
+        LikeResult result = likeService.likePost(userId, postId);
+        String message = result == LikeResult.LIKED ? "Post liked successfully" : "Post already liked";
+        return new ResponseEntity<>(message, HttpStatus.OK);
     }
 
+    @RateLimited("likes")
     @DeleteMapping("/{userId}/unlike/{postId}")
     public ResponseEntity<String> unlikePost(@PathVariable Long userId, @PathVariable Long postId) {
-        likeService.unlikePost(userId, postId);
-        return new ResponseEntity<>("Post unliked successfully", HttpStatus.OK);
+        LikeResult result = likeService.unlikePost(userId, postId);
+        String message = result == LikeResult.UNLIKED ? "Post unliked successfully" : "Post was not liked";
+        return new ResponseEntity<>(message, HttpStatus.OK);
+    }
+
+    @RateLimited("bulk-likes")
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkLikeResult>> applyBulk(@RequestBody List<LikeOperation> operations) {
+        List<BulkLikeResult> results = likeService.applyBatch(operations);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @GetMapping("/post/{postId}/count")
+    public ResponseEntity<Long> getLikeCount(@PathVariable Long postId) {
+        return new ResponseEntity<>(likeService.getLikeCount(postId), HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/liked/{postId}")
+    public ResponseEntity<Boolean> hasLiked(@PathVariable Long userId, @PathVariable Long postId) {
+        return new ResponseEntity<>(likeService.hasLiked(userId, postId), HttpStatus.OK);
     }
 }
\ No newline at end of file
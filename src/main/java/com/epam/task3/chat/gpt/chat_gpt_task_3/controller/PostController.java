@@ -1,44 +1,113 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostDetail;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.SearchPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.TrendingPost;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LiveStreamService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostBatchWriter;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostSearchService;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.TrendingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/posts")
 public class PostController {
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final TrendingService trendingService;
+    private final LiveStreamService liveStreamService;
+    private final PostBatchWriter postBatchWriter;
 
     @Autowired
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostSearchService postSearchService,
+                          TrendingService trendingService, LiveStreamService liveStreamService,
+                          PostBatchWriter postBatchWriter) {
         this.postService = postService;
+        this.postSearchService = postSearchService;
+        this.trendingService = trendingService;
+        this.liveStreamService = liveStreamService;
+        this.postBatchWriter = postBatchWriter;
     }
 
+    // Returns the response itself when the post was written inline (group commit off, queue full), and the
+    // future only when it waits for a group commit, so inline writes skip the async dispatch
+    @RateLimited("posts")
     @PostMapping
-    public ResponseEntity<Post> createPost(@RequestParam Long userId, @RequestParam String title, @RequestParam String body) {
-        Post post = postService.createPost(userId, title, body);
-        return new ResponseEntity<>(post, HttpStatus.CREATED);
+    public Object createPost(@RequestParam Long userId, @RequestParam String title, @RequestParam String body) {
+        CompletableFuture<Post> post = postBatchWriter.submit(userId, title, body);
+        if (post.isDone() && !post.isCompletedExceptionally()) {
+            return created(post.join());
+        }
+        return post.thenApply(this::created);
     }
 
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
+    public ResponseEntity<CursorPage<PostSummary>> getAllPosts(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        CursorPage<PostSummary> posts = postService.getPosts(cursor, size);
         return new ResponseEntity<>(posts, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<PostDetail> getPost(@PathVariable Long id) {
+        return new ResponseEntity<>(postService.getPost(id), HttpStatus.OK);
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByUser(@PathVariable Long userId) {
-        List<Post> posts = postService.getPostsByUser(userId);
+    public ResponseEntity<CursorPage<PostSummary>> getPostsByUser(@PathVariable Long userId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        CursorPage<PostSummary> posts = postService.getPostsByUser(userId, cursor, size);
         return new ResponseEntity<>(posts, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage<PostSummary>> searchPosts(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer page,
+                                                               @RequestParam(required = false) Integer size) {
+        SearchPage<PostSummary> results = postSearchService.search(q, page, size);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingPost>> getTrending(@RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(trendingService.getTrending(limit), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam Long userId,
+                                             @RequestParam(required = false) List<Long> watch) {
+        return new ResponseEntity<>(liveStreamService.subscribe(userId, watch), HttpStatus.OK);
+    }
+
+    @PutMapping("/stream/{subscriptionId}/watch")
+    public ResponseEntity<String> watch(@PathVariable String subscriptionId, @RequestBody List<Long> postIds) {
+        liveStreamService.watch(subscriptionId, postIds);
+        return new ResponseEntity<>("Watched posts updated", HttpStatus.OK);
+    }
+
+    private ResponseEntity<PostSummary> created(Post post) {
+        return new ResponseEntity<>(PostSummary.from(post), HttpStatus.CREATED);
+    }
+}
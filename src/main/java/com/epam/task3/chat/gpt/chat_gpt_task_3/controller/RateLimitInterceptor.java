@@ -0,0 +1,112 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.AdmissionController;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final int NOT_LIMITED = -1;
+
+    private final RateLimiter rateLimiter;
+    private final AdmissionController admissionController;
+    private final ConcurrentMap<Method, Integer> buckets = new ConcurrentHashMap<>();
+    private final Counter[] limited;
+    private final Counter shed;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, AdmissionController admissionController,
+                                MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.admissionController = admissionController;
+        this.limited = new Counter[rateLimiter.bucketCount()];
+        for (int i = 0; i < limited.length; i++) {
+            limited[i] = Counter.builder("rate.limit.rejected")
+                    .tag("bucket", rateLimiter.bucketName(i))
+                    .tag("reason", "limit")
+                    .register(meterRegistry);
+        }
+        this.shed = Counter.builder("rate.limit.rejected")
+                .tag("bucket", "all")
+                .tag("reason", "shed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // an async handler is dispatched again to write its result; the request was already admitted and charged
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Integer bucket = buckets.get(handlerMethod.getMethod());
+        if (bucket == null) {
+            bucket = resolveBucket(handlerMethod.getMethod());
+            buckets.put(handlerMethod.getMethod(), bucket);
+        }
+        if (bucket == NOT_LIMITED) {
+            return true;
+        }
+
+        if (!admissionController.admit()) {
+            shed.increment();
+            return reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+        }
+        long wait = rateLimiter.tryAcquire(bucket, key(request));
+        if (wait > 0) {
+            limited[bucket].increment();
+            return reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1);
+        }
+        return true;
+    }
+
+    private int resolveBucket(Method method) {
+        RateLimited rateLimited = method.getAnnotation(RateLimited.class);
+        return rateLimited == null ? NOT_LIMITED : rateLimiter.bucketIndex(rateLimited.value());
+    }
+
+    // Requests without a user id, such as bulk likes, are limited per authenticated principal or remote address
+    @SuppressWarnings("unchecked")
+    private static long key(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = variables != null ? variables.get("userId") : null;
+        if (userId == null) {
+            userId = request.getParameter("userId");
+        }
+        if (userId != null) {
+            try {
+                long id = Long.parseLong(userId);
+                if (id >= 0) {
+                    return id;
+                }
+            } catch (NumberFormatException e) {
+                // falls through to the caller's key
+            }
+        }
+        Principal principal = request.getUserPrincipal();
+        return RateLimiter.clientKey(principal != null ? "user:" + principal.getName() : request.getRemoteAddr());
+    }
+
+    private static boolean reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value(), status.getReasonPhrase());
+        return false;
+    }
+}
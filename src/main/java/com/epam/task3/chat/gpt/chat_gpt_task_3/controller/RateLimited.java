@@ -0,0 +1,17 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler behind the named {@code rate-limit.buckets.*} token bucket, keyed by the request's
+ * {@code userId} path variable or parameter, and behind adaptive load shedding.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+}
@@ -1,31 +1,117 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.FollowCounts;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.NotificationPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.UserSummary;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.FeedService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.FollowGraphService;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.NotificationService;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final FeedService feedService;
+    private final FollowGraphService followGraphService;
+    private final NotificationService notificationService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, FeedService feedService, FollowGraphService followGraphService,
+                          NotificationService notificationService) {
         this.userService = userService;
+        this.feedService = feedService;
+        this.followGraphService = followGraphService;
+        this.notificationService = notificationService;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<User> registerUser(@RequestParam String username, @RequestParam String email) {
+    public ResponseEntity<UserSummary> registerUser(@RequestParam String username, @RequestParam String email) {
         User user = userService.registerUser(username, email);
-        return new ResponseEntity<>(user, HttpStatus.CREATED);
+        return new ResponseEntity<>(UserSummary.from(user), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<Boolean> isUsernameAvailable(@RequestParam String username) {
+        return new ResponseEntity<>(userService.isUsernameAvailable(username), HttpStatus.OK);
     }
 
+    @RateLimited("follows")
     @PostMapping("/{userId}/follow/{targetUserId}")
     public ResponseEntity<String> followUser(@PathVariable Long userId, @PathVariable Long targetUserId) {
         userService.followUser(userId, targetUserId);
         return new ResponseEntity<>("User followed successfully", HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @RateLimited("follows")
+    @DeleteMapping("/{userId}/follow/{targetUserId}")
+    public ResponseEntity<String> unfollowUser(@PathVariable Long userId, @PathVariable Long targetUserId) {
+        userService.unfollowUser(userId, targetUserId);
+        return new ResponseEntity<>("User unfollowed successfully", HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/follows/{targetUserId}")
+    public ResponseEntity<Boolean> follows(@PathVariable Long userId, @PathVariable Long targetUserId) {
+        return new ResponseEntity<>(followGraphService.follows(userId, targetUserId), HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<long[]> getFollowers(@PathVariable Long userId,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer size) {
+        long[] followers = followGraphService.followersPage(userId, after, size);
+        return new ResponseEntity<>(followers, HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<long[]> getFollowing(@PathVariable Long userId,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer size) {
+        long[] following = followGraphService.followingPage(userId, after, size);
+        return new ResponseEntity<>(following, HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/mutuals")
+    public ResponseEntity<long[]> getMutualFollows(@PathVariable Long userId) {
+        return new ResponseEntity<>(followGraphService.mutualFollows(userId), HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/follow-counts")
+    public ResponseEntity<FollowCounts> getFollowCounts(@PathVariable Long userId) {
+        FollowCounts counts = new FollowCounts(followGraphService.followerCount(userId),
+                followGraphService.followingCount(userId));
+        return new ResponseEntity<>(counts, HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/feed")
+    public ResponseEntity<List<PostSummary>> getFeed(@PathVariable Long userId,
+                                                     @RequestParam(required = false) Long before,
+                                                     @RequestParam(required = false) Integer size) {
+        List<PostSummary> feed = feedService.getFeed(userId, before, size);
+        return new ResponseEntity<>(feed, HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/notifications")
+    public ResponseEntity<NotificationPage> getNotifications(@PathVariable Long userId,
+                                                             @RequestParam(required = false) Long before,
+                                                             @RequestParam(required = false) Integer size) {
+        NotificationPage notifications = notificationService.getNotifications(userId, before, size);
+        return new ResponseEntity<>(notifications, HttpStatus.OK);
+    }
+
+    @PostMapping("/{userId}/notifications/read")
+    public ResponseEntity<Integer> markNotificationsRead(@PathVariable Long userId,
+                                                         @RequestParam(required = false) Long upTo) {
+        return new ResponseEntity<>(notificationService.markRead(userId, upTo), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,6 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,6 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import java.time.LocalDateTime;
+
+public record LikeExportRow(Long id, Long userId, Long postId, LocalDateTime createdAt) {
+}
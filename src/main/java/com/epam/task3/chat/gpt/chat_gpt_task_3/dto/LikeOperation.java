@@ -0,0 +1,9 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+public record LikeOperation(Long userId, Long postId, Type op) {
+
+    public enum Type {
+        LIKE,
+        UNLIKE
+    }
+}
@@ -0,0 +1,10 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+public enum LikeResult {
+    LIKED,
+    ALREADY_LIKED,
+    UNLIKED,
+    NOT_LIKED,
+    NOT_FOUND,
+    SUPERSEDED
+}
@@ -0,0 +1,13 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Notification;
+
+import java.time.LocalDateTime;
+
+public record NotificationView(Long id, Long postId, Long actorId, LocalDateTime createdAt, boolean read) {
+
+    public static NotificationView from(Notification notification) {
+        return new NotificationView(notification.getId(), notification.getPostId(), notification.getActorId(),
+                notification.getCreatedAt(), notification.getReadAt() != null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+
+import java.time.LocalDateTime;
+
+public record PostDetail(Long id, String title, String body, Long authorId, String authorUsername,
+                         long likeCount, LocalDateTime createdAt) {
+
+    public static PostDetail of(Post post, String body) {
+        return new PostDetail(post.getId(), post.getTitle(), body, post.getAuthor().getId(),
+                post.getAuthor().getUsername(), post.getLikeCount(), post.getCreatedAt());
+    }
+}
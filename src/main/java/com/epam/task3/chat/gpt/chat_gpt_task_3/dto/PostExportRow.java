@@ -0,0 +1,10 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PostExportRow(Long id, String title, String body, LocalDateTime createdAt,
+                            Long authorId, Long likeCount) {
+}
@@ -0,0 +1,17 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a post. {@code truncated} tells the client the full body is only served by {@code GET /api/posts/{id}}.
+ */
+public record PostSummary(Long id, String title, String preview, boolean truncated, Long authorId,
+                          String authorUsername, long likeCount, LocalDateTime createdAt) {
+
+    public static PostSummary from(Post post) {
+        return new PostSummary(post.getId(), post.getTitle(), post.getPreview(), post.isTruncated(),
+                post.getAuthor().getId(), post.getAuthor().getUsername(), post.getLikeCount(), post.getCreatedAt());
+    }
+}
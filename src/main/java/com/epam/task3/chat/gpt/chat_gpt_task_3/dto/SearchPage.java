@@ -0,0 +1,6 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import java.util.List;
+
+public record SearchPage<T>(List<T> items, int page, int size, long totalHits) {
+}
@@ -0,0 +1,4 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+public record TrendingPost(Long postId, long recentLikes, double score) {
+}
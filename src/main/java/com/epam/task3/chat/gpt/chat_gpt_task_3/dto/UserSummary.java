@@ -0,0 +1,10 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.dto;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+
+public record UserSummary(Long id, String username, String email) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail());
+    }
+}
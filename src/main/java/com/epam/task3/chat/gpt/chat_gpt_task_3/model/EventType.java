@@ -0,0 +1,19 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.model;
+
+public enum EventType {
+    POST_CREATED("post"),
+    POST_LIKED("post"),
+    POST_UNLIKED("post"),
+    USER_FOLLOWED("user"),
+    USER_UNFOLLOWED("user");
+
+    private final String aggregateType;
+
+    EventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String aggregateType() {
+        return aggregateType;
+    }
+}
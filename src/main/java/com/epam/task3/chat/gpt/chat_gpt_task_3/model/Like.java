@@ -3,16 +3,23 @@ package com.epam.task3.chat.gpt.chat_gpt_task_3.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "likes", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}))
 public class Like {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "likes_seq")
+    @SequenceGenerator(name = "likes_seq", sequenceName = "likes_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -22,4 +29,11 @@ public class Like {
     @ManyToOne
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
+
+    @Column(name = "created_at", insertable = false, updatable = false,
+            columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime createdAt;
+
+    @Column(name = "post_created_at")
+    private LocalDateTime postCreatedAt;
 }
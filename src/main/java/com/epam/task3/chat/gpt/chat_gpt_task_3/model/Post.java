@@ -3,8 +3,14 @@ package com.epam.task3.chat.gpt.chat_gpt_task_3.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,23 +18,54 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "posts")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @ShardedId
+    // Hibernate only emits identity DDL for its own IDENTITY strategy, so schemas it creates need the default spelled
+    // out; with sharding the generator assigns ids before the insert and the default is never used.
+    @Column(columnDefinition = "bigserial")
     private Long id;
 
 
     private String title;
 
+    @Column(nullable = false, columnDefinition = "text")
+    private String preview;
 
+    @Column(updatable = false, columnDefinition = "boolean not null default false")
+    private boolean truncated;
+
+    // The full body is not mapped: it is kept in the preview when short enough and in post_bodies otherwise.
+    // Set on posts being created so they can be indexed and published without reading it back.
+    @Transient
+    @ToString.Exclude
     private String body;
 
     @ManyToOne
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "like_count", insertable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private long likeCount;
+
+    @ToString.Exclude
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Like> likes = new ArrayList<>();
 
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Full body of a post that does not fit in its preview, stored apart from {@code posts} so listings never read it.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "post_bodies")
+public class PostBody {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Encoding encoding;
+
+    @ToString.Exclude
+    @Column(nullable = false)
+    private byte[] content;
+
+    public enum Encoding {
+        PLAIN,
+        DEFLATE
+    }
+}
@@ -0,0 +1,47 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.model;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardContext;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SnowflakeIds;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Behaves like {@code GenerationType.IDENTITY} unless the sharding configuration registered a {@link SnowflakeIds}
+ * under {@link #SNOWFLAKE_IDS} in the Hibernate settings, in which case ids are assigned before the insert, stamped
+ * with the shard in {@link ShardContext}.
+ */
+public class ShardedIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+    public static final String SNOWFLAKE_IDS = "sharding.snowflake-ids";
+
+    private final SnowflakeIds snowflakeIds;
+
+    public ShardedIdGenerator(ShardedId annotation, Member member, CustomIdGeneratorCreationContext context) {
+        this.snowflakeIds = (SnowflakeIds) context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(SNOWFLAKE_IDS);
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return snowflakeIds == null;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Integer shard = ShardContext.current();
+        return snowflakeIds.nextId(shard == null ? 0 : shard);
+    }
+}
@@ -3,12 +3,61 @@ package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Like;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
     Optional<Like> findByUserAndPost(User user, Post post);
-}
\ No newline at end of file
+
+    @Query("select l.user.id from Like l where l.post.id = :postId")
+    List<Long> findUserIdsByPostId(@Param("postId") Long postId);
+
+    @Query("select count(l) > 0 from Like l where l.user.id = :userId and l.post.id = :postId")
+    boolean existsByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Query("select count(l) > 0 from Like l where l.user.id = :userId and l.post.id = :postId " +
+            "and l.postCreatedAt = (select p.createdAt from Post p where p.id = :postId)")
+    boolean existsByUserIdAndPostIdInPartition(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // With partitioning.enabled: post_created_at lets the planner prune to the post's partition. Rows written before
+    // it existed have it unset until db/partitioning.sql fills it, so the unpartitioned schema must not filter on it.
+    @Query("select l.user.id from Like l where l.post.id = :postId " +
+            "and l.postCreatedAt = (select p.createdAt from Post p where p.id = :postId)")
+    List<Long> findUserIdsByPostIdInPartition(@Param("postId") Long postId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "insert into likes (id, user_id, post_id, post_created_at) " +
+            "select nextval('likes_id_seq'), :userId, p.id, p.created_at from posts p where p.id = :postId " +
+            "on conflict (user_id, post_id) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // the partitioned unique constraint also carries post_created_at, see db/partitioning.sql
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "insert into likes (id, user_id, post_id, post_created_at) " +
+            "select nextval('likes_id_seq'), :userId, p.id, p.created_at from posts p where p.id = :postId " +
+            "on conflict (user_id, post_id, post_created_at) do nothing", nativeQuery = true)
+    int insertIfAbsentInPartition(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "delete from likes where user_id = :userId and post_id = :postId", nativeQuery = true)
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "likes"))
+    @Query(value = "delete from likes where user_id = :userId and post_id = :postId " +
+            "and post_created_at = (select created_at from posts where id = :postId)", nativeQuery = true)
+    int deleteByUserIdAndPostIdInPartition(@Param("userId") Long userId, @Param("postId") Long postId);
+}
@@ -0,0 +1,27 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    @Query("select n from Notification n where n.userId = :userId order by n.id desc")
+    List<Notification> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select n from Notification n where n.userId = :userId and n.id < :before order by n.id desc")
+    List<Notification> findPageBefore(@Param("userId") Long userId, @Param("before") Long before, Pageable pageable);
+
+    long countByUserIdAndReadAtIsNull(Long userId);
+
+    @Modifying
+    @Query("update Notification n set n.readAt = :readAt where n.userId = :userId and n.readAt is null and n.id <= :upTo")
+    int markRead(@Param("userId") Long userId, @Param("upTo") Long upTo, @Param("readAt") LocalDateTime readAt);
+}
@@ -0,0 +1,21 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // held until the transaction ends, so only one relay at a time drains a shard's outbox
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockRelay(@Param("key") long key);
+
+    @Query("select e from OutboxEvent e where e.createdAt < :before order by e.id")
+    List<OutboxEvent> findOldest(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostBodyRepository extends JpaRepository<PostBody, Long> {
+}
@@ -1,13 +1,58 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    String SELECT_SUMMARY = "select new com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary(" +
+            "p.id, p.title, p.preview, p.truncated, a.id, a.username, p.likeCount, p.createdAt) from Post p join p.author a ";
+
     List<Post> findAllByAuthorId(Long authorId);
-}
\ No newline at end of file
+
+    @Query("select p.id from Post p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_SUMMARY + "where p.id in :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from Post p where p.author.id in :authorIds and p.id < :beforeId order by p.id desc")
+    List<Long> findIdsByAuthors(@Param("authorIds") Collection<Long> authorIds,
+                                @Param("beforeId") long beforeId,
+                                Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where p.createdAt >= :since order by p.createdAt desc, p.id desc")
+    List<PostSummary> findFirstPage(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where p.createdAt >= :since " +
+            "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummary> findPageAfter(@Param("since") LocalDateTime since,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where a.id = :authorId and p.createdAt >= :since " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummary> findFirstPageByAuthorId(@Param("authorId") Long authorId,
+                                              @Param("since") LocalDateTime since,
+                                              Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where a.id = :authorId and p.createdAt >= :since " +
+            "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostSummary> findPageByAuthorIdAfter(@Param("authorId") Long authorId,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+}
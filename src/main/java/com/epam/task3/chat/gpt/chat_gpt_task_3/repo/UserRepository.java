@@ -1,12 +1,54 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.repo;
 
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    @Modifying
+    @Query(value = "insert into users (id, username, email) values (:id, :username, :email)", nativeQuery = true)
+    int insertWithId(@Param("id") Long id, @Param("username") String username, @Param("email") String email);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_directory"))
+    @Query(value = "insert into user_directory (username, email, user_id) values (:username, :email, :userId)",
+            nativeQuery = true)
+    int insertDirectoryEntry(@Param("username") String username, @Param("email") String email,
+                             @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_directory"))
+    @Query(value = "delete from user_directory where username = :username and user_id = :userId", nativeQuery = true)
+    int deleteDirectoryEntry(@Param("username") String username, @Param("userId") Long userId);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_following"))
+    @Query(value = "insert into user_following (follower_id, following_id) values (:followerId, :followingId) " +
+            "on conflict (follower_id, following_id) do nothing", nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_following"))
+    @Query(value = "delete from user_following where follower_id = :followerId and following_id = :followingId",
+            nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
 }
\ No newline at end of file
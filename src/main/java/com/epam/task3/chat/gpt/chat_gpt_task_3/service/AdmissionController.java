@@ -0,0 +1,94 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive load shedding for write endpoints. Every sample compares the mean Hikari connection wait
+ * and the mean service call latency since the previous sample with their thresholds: while either is
+ * exceeded the admitted share of rate-limited requests is halved, and once both recover it grows back
+ * additively.
+ */
+@Component
+public class AdmissionController {
+    private static final Logger log = LoggerFactory.getLogger(AdmissionController.class);
+    private static final double RECOVERY_STEP = 0.1;
+
+    private final MeterRegistry meterRegistry;
+    private final double poolWaitThresholdMs;
+    private final double latencyThresholdMs;
+    private final double minAdmitRatio;
+    private final Window poolWait = new Window();
+    private final Window latency = new Window();
+    private volatile double admitRatio = 1.0;
+
+    @Autowired
+    public AdmissionController(MeterRegistry meterRegistry, RateLimitProperties rateLimitProperties) {
+        this.meterRegistry = meterRegistry;
+        this.poolWaitThresholdMs = rateLimitProperties.shedPoolWait().toNanos() / 1e6;
+        this.latencyThresholdMs = rateLimitProperties.shedLatency().toNanos() / 1e6;
+        this.minAdmitRatio = rateLimitProperties.minAdmitRatio();
+        Gauge.builder("rate.limit.admit.ratio", this, AdmissionController::admitRatio)
+                .description("Share of rate-limited requests currently admitted by load shedding")
+                .register(meterRegistry);
+    }
+
+    public boolean admit() {
+        double ratio = admitRatio;
+        return ratio >= 1.0 || ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+
+    public double admitRatio() {
+        return admitRatio;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sample-interval-ms:1000}")
+    public void sample() {
+        adjust(poolWait.meanMillis(meterRegistry.find("hikaricp.connections.acquire").timers()),
+                latency.meanMillis(meterRegistry.find("service.calls").timers()));
+    }
+
+    void adjust(double poolWaitMs, double latencyMs) {
+        double previous = admitRatio;
+        if (poolWaitMs > poolWaitThresholdMs || latencyMs > latencyThresholdMs) {
+            admitRatio = Math.max(minAdmitRatio, previous / 2);
+        } else {
+            admitRatio = Math.min(1.0, previous + RECOVERY_STEP);
+        }
+        if (previous >= 1.0 && admitRatio < 1.0) {
+            log.warn("Shedding writes: pool wait {} ms, service latency {} ms", poolWaitMs, latencyMs);
+        } else if (previous < 1.0 && admitRatio >= 1.0) {
+            log.info("Write shedding stopped");
+        }
+    }
+
+    private static final class Window {
+        private long count;
+        private double totalMillis;
+
+        double meanMillis(Collection<Timer> timers) {
+            long newCount = 0;
+            double newTotal = 0;
+            for (Timer timer : timers) {
+                newCount += timer.count();
+                newTotal += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+            long calls = newCount - count;
+            double mean = calls > 0 ? (newTotal - totalMillis) / calls : 0;
+            count = newCount;
+            totalMillis = newTotal;
+            return mean;
+        }
+    }
+}
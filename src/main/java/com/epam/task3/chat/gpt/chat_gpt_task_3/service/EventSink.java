@@ -0,0 +1,14 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Events arrive in outbox order and the same batch may be
+ * delivered again if the relay stops before acknowledging it, so consumers must be idempotent on
+ * the event id.
+ */
+public interface EventSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
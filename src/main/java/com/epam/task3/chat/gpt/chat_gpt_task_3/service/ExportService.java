@@ -0,0 +1,150 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ExportProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeExportRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostExportRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ExportService {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations readOnlyTransaction;
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+    private final ShardRouter shardRouter;
+    private final PostBodyCodec postBodyCodec;
+
+    @Autowired
+    public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, ExportProperties exportProperties, ShardRouter shardRouter,
+                         PostBodyCodec postBodyCodec) {
+        this(cursorTemplate(dataSource, exportProperties.fetchSize()), readOnly(transactionManager),
+                objectMapper, exportProperties, shardRouter, postBodyCodec);
+    }
+
+    ExportService(JdbcTemplate jdbcTemplate, TransactionOperations readOnlyTransaction,
+                  ObjectMapper objectMapper, ExportProperties exportProperties, ShardRouter shardRouter,
+                  PostBodyCodec postBodyCodec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exportProperties = exportProperties;
+        this.shardRouter = shardRouter;
+        this.postBodyCodec = postBodyCodec;
+    }
+
+    // The PostgreSQL driver only streams with a cursor when autocommit is off, so every export runs in a
+    // read-only transaction and maps rows straight to DTOs without touching the persistence context.
+    public long exportPosts(OutputStream out, LocalDateTime updatedSince,
+                            boolean includeLikeCounts, boolean includeAuthorIds) throws IOException {
+        StringBuilder sql = new StringBuilder("select p.id, p.title, p.preview, p.created_at, p.author_id, p.like_count, " +
+                "b.encoding, b.content from posts p left join post_bodies b on b.post_id = p.id");
+        List<Object> args = new ArrayList<>();
+        if (updatedSince != null) {
+            sql.append(" where p.created_at >= ?");
+            args.add(Timestamp.valueOf(updatedSince));
+        }
+        sql.append(" order by p.id");
+
+        return stream(out, sql.toString(), args, rs -> new PostExportRow(
+                rs.getLong(1),
+                rs.getString(2),
+                fullBody(rs),
+                toLocalDateTime(rs.getTimestamp(4)),
+                includeAuthorIds ? rs.getLong(5) : null,
+                includeLikeCounts ? rs.getLong(6) : null));
+    }
+
+    public long exportLikes(OutputStream out, LocalDateTime updatedSince) throws IOException {
+        StringBuilder sql = new StringBuilder("select l.id, l.user_id, l.post_id, l.created_at from likes l");
+        List<Object> args = new ArrayList<>();
+        if (updatedSince != null) {
+            sql.append(" where l.created_at >= ?");
+            args.add(Timestamp.valueOf(updatedSince));
+        }
+        sql.append(" order by l.id");
+
+        return stream(out, sql.toString(), args, rs -> new LikeExportRow(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                toLocalDateTime(rs.getTimestamp(4))));
+    }
+
+    private long stream(OutputStream out, String sql, List<Object> args, RowReader reader) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        long[] written = new long[1];
+        int flushEvery = Math.max(1, exportProperties.flushEvery());
+        try {
+            // with sharding, shards are exported one after another, each in its own order
+            shardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                try {
+                    writer.writeValue(generator, reader.read(rs));
+                    generator.writeRaw('\n');
+                    if (++written[0] % flushEvery == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray())));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+        return written[0];
+    }
+
+    private String fullBody(ResultSet rs) throws SQLException {
+        String encoding = rs.getString(7);
+        return encoding == null ? rs.getString(3)
+                : postBodyCodec.decode(PostBody.Encoding.valueOf(encoding), rs.getBytes(8));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static JdbcTemplate cursorTemplate(DataSource dataSource, int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        return template;
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        Object read(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,89 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.FeedProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Home timelines. Posts are fanned out on write into each follower's timeline, except for
+ * authors above the celebrity threshold whose posts are merged in on read instead. Whether an
+ * author is a celebrity is decided from the in-memory follow graph each time, so it holds from
+ * startup on and follows the author's current follower count. A timeline shorter than the page
+ * is completed from the posts of every followed author, since it may be cold after a restart,
+ * lack posts written through another node or those of an author who was a celebrity then.
+ */
+@Service
+public class FeedService {
+    private final TimelineStore timelineStore;
+    private final FollowGraphService followGraphService;
+    private final PostRepository postRepository;
+    private final FeedProperties feedProperties;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public FeedService(TimelineStore timelineStore, FollowGraphService followGraphService,
+                       PostRepository postRepository, FeedProperties feedProperties, ShardRouter shardRouter) {
+        this.timelineStore = timelineStore;
+        this.followGraphService = followGraphService;
+        this.postRepository = postRepository;
+        this.feedProperties = feedProperties;
+        this.shardRouter = shardRouter;
+    }
+
+    public void fanOut(Post post) {
+        Long authorId = post.getAuthor().getId();
+        timelineStore.push(authorId, post.getId());
+
+        if (followGraphService.followerCount(authorId) > feedProperties.celebrityFollowerThreshold()) {
+            return;
+        }
+        timelineStore.pushAll(Arrays.stream(followGraphService.followersOf(authorId)).boxed().toList(), post.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostSummary> getFeed(Long userId, Long beforePostId, Integer size) {
+        int limit = feedProperties.resolvePageSize(size);
+        List<Long> postIds = new ArrayList<>(timelineStore.read(userId, beforePostId, limit));
+
+        // follows live with the follower and posts with their author, so the authors to read are picked
+        // from the in-memory graph and their posts read from the authors' shards
+        long[] following = followGraphService.followingOf(userId);
+        long threshold = feedProperties.celebrityFollowerThreshold();
+        List<Long> pulledAuthors = postIds.size() < limit
+                ? LongStream.concat(Arrays.stream(following), LongStream.of(userId)).boxed().toList()
+                : Arrays.stream(following)
+                        .filter(authorId -> followGraphService.followerCount(authorId) > threshold)
+                        .boxed()
+                        .toList();
+        if (!pulledAuthors.isEmpty()) {
+            long before = beforePostId == null ? Long.MAX_VALUE : beforePostId;
+            postIds.addAll(shardRouter.gatherByShard(pulledAuthors, shardRouter::shardOfUser,
+                    authorIds -> postRepository.findIdsByAuthors(authorIds, before, PageRequest.of(0, limit)),
+                    Comparator.reverseOrder(), limit));
+            postIds = postIds.stream()
+                    .distinct()
+                    .sorted(Comparator.reverseOrder())
+                    .limit(limit)
+                    .toList();
+        }
+
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        List<PostSummary> posts = new ArrayList<>(shardRouter.gatherByShard(postIds, shardRouter::shardOfPost,
+                postRepository::findSummariesByIdIn, null, Integer.MAX_VALUE));
+        posts.sort(Comparator.comparing(PostSummary::id).reversed());
+        return posts;
+    }
+}
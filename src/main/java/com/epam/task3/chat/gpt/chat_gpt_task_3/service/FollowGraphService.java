@@ -0,0 +1,392 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.FollowGraphProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory copy of {@code user_following}. Every user's followers and followees are kept as
+ * sorted adjacency lists split into fixed-size chunks, so a follow or unfollow only shifts one
+ * chunk even for accounts with millions of followers, and lookups are binary searches. Changes
+ * are applied once the surrounding transaction commits.
+ */
+@Service
+public class FollowGraphService {
+    private static final Logger log = LoggerFactory.getLogger(FollowGraphService.class);
+    private static final long[] EMPTY = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final FollowGraphProperties followGraphProperties;
+    private final ConcurrentMap<Long, AdjacencyList> followers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AdjacencyList> following = new ConcurrentHashMap<>();
+    private final Set<Edge> unfollowedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    @Autowired
+    public FollowGraphService(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                              FollowGraphProperties followGraphProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.followGraphProperties = followGraphProperties;
+    }
+
+    // Merged into the maps rather than replacing them: follows recorded during the scan are kept, and edges
+    // unfollowed during it are not brought back from rows read before the unfollow
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        try {
+            Map<Long, LongList> followersByUser = new HashMap<>();
+            Map<Long, LongList> followingByUser = new HashMap<>();
+            shardRouter.forEachShard(() -> jdbcTemplate.query("select follower_id, following_id from user_following",
+                    rs -> {
+                        long followerId = rs.getLong(1);
+                        long followingId = rs.getLong(2);
+                        followingByUser.computeIfAbsent(followerId, id -> new LongList()).add(followingId);
+                        followersByUser.computeIfAbsent(followingId, id -> new LongList()).add(followerId);
+                    }));
+            followersByUser.forEach((userId, ids) -> merge(followers, userId, ids.toSortedArray(),
+                    followerId -> new Edge(followerId, userId)));
+            followingByUser.forEach((userId, ids) -> merge(following, userId, ids.toSortedArray(),
+                    followingId -> new Edge(userId, followingId)));
+        } finally {
+            loading = false;
+            unfollowedWhileLoading.clear();
+        }
+        log.info("Loaded follow graph: {} users with followers, {} users following someone",
+                followers.size(), following.size());
+    }
+
+    public void recordFollow(Long followerId, Long followingId) {
+        afterCommit(() -> {
+            add(following, followerId, followingId);
+            add(followers, followingId, followerId);
+        });
+    }
+
+    public void recordUnfollow(Long followerId, Long followingId) {
+        afterCommit(() -> {
+            if (loading) {
+                unfollowedWhileLoading.add(new Edge(followerId, followingId));
+            }
+            remove(following, followerId, followingId);
+            remove(followers, followingId, followerId);
+        });
+    }
+
+    public boolean follows(Long followerId, Long followingId) {
+        AdjacencyList ids = following.get(followerId);
+        return ids != null && ids.contains(followingId);
+    }
+
+    public long[] followersOf(Long userId) {
+        AdjacencyList ids = followers.get(userId);
+        return ids == null ? EMPTY : ids.toArray();
+    }
+
+    public long[] followingOf(Long userId) {
+        AdjacencyList ids = following.get(userId);
+        return ids == null ? EMPTY : ids.toArray();
+    }
+
+    public int followerCount(Long userId) {
+        AdjacencyList ids = followers.get(userId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    public int followingCount(Long userId) {
+        AdjacencyList ids = following.get(userId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * Users that {@code userId} follows and that follow {@code userId} back.
+     */
+    public long[] mutualFollows(Long userId) {
+        long[] a = followingOf(userId);
+        long[] b = followersOf(userId);
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Returns up to {@code limit} ids from a sorted adjacency list that are greater than {@code afterId}.
+     */
+    public long[] followersPage(Long userId, Long afterId, Integer size) {
+        AdjacencyList ids = followers.get(userId);
+        return ids == null ? EMPTY : ids.page(afterId, followGraphProperties.resolvePageSize(size));
+    }
+
+    public long[] followingPage(Long userId, Long afterId, Integer size) {
+        AdjacencyList ids = following.get(userId);
+        return ids == null ? EMPTY : ids.page(afterId, followGraphProperties.resolvePageSize(size));
+    }
+
+    private void merge(ConcurrentMap<Long, AdjacencyList> graph, Long userId, long[] loaded,
+                       LongFunction<Edge> edge) {
+        long[] kept = unfollowedWhileLoading.isEmpty() ? loaded
+                : Arrays.stream(loaded).filter(id -> !unfollowedWhileLoading.contains(edge.apply(id))).toArray();
+        if (kept.length == 0) {
+            return;
+        }
+        graph.compute(userId, (id, ids) -> {
+            if (ids == null) {
+                return AdjacencyList.of(kept);
+            }
+            for (long value : kept) {
+                ids.add(value);
+            }
+            return ids;
+        });
+    }
+
+    // inside compute, so an add cannot go to a list that a concurrent unfollow has just dropped from the map
+    private static void add(ConcurrentMap<Long, AdjacencyList> graph, Long userId, long id) {
+        graph.compute(userId, (key, ids) -> {
+            AdjacencyList list = ids == null ? new AdjacencyList() : ids;
+            list.add(id);
+            return list;
+        });
+    }
+
+    private static void remove(ConcurrentMap<Long, AdjacencyList> graph, Long userId, long id) {
+        graph.computeIfPresent(userId, (key, ids) -> ids.remove(id) && ids.size() == 0 ? null : ids);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Edge(long followerId, long followingId) {
+    }
+
+    /**
+     * Sorted set of ids stored as a list of sorted chunks of at most {@link #CHUNK_SIZE} ids. Updates shift
+     * ids within one chunk and split it when full; readers share a read lock.
+     */
+    static final class AdjacencyList {
+        static final int CHUNK_SIZE = 512;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Chunk> chunks = new ArrayList<>();
+        private volatile int size;
+
+        static AdjacencyList of(long[] sorted) {
+            AdjacencyList list = new AdjacencyList();
+            for (int from = 0; from < sorted.length; from += CHUNK_SIZE) {
+                int to = Math.min(sorted.length, from + CHUNK_SIZE);
+                Chunk chunk = new Chunk();
+                System.arraycopy(sorted, from, chunk.values, 0, to - from);
+                chunk.size = to - from;
+                list.chunks.add(chunk);
+            }
+            list.size = sorted.length;
+            return list;
+        }
+
+        boolean add(long id) {
+            lock.writeLock().lock();
+            try {
+                if (chunks.isEmpty()) {
+                    chunks.add(new Chunk());
+                }
+                int index = chunkFor(id);
+                Chunk chunk = chunks.get(index);
+                int position = Arrays.binarySearch(chunk.values, 0, chunk.size, id);
+                if (position >= 0) {
+                    return false;
+                }
+                int insertAt = -position - 1;
+                if (chunk.size == CHUNK_SIZE) {
+                    Chunk upper = chunk.splitUpperHalf();
+                    chunks.add(index + 1, upper);
+                    if (insertAt > chunk.size) {
+                        insertAt -= chunk.size;
+                        chunk = upper;
+                    }
+                }
+                System.arraycopy(chunk.values, insertAt, chunk.values, insertAt + 1, chunk.size - insertAt);
+                chunk.values[insertAt] = id;
+                chunk.size++;
+                size++;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean remove(long id) {
+            lock.writeLock().lock();
+            try {
+                if (chunks.isEmpty()) {
+                    return false;
+                }
+                int index = chunkFor(id);
+                Chunk chunk = chunks.get(index);
+                int position = Arrays.binarySearch(chunk.values, 0, chunk.size, id);
+                if (position < 0) {
+                    return false;
+                }
+                System.arraycopy(chunk.values, position + 1, chunk.values, position, chunk.size - position - 1);
+                chunk.size--;
+                if (chunk.size == 0) {
+                    chunks.remove(index);
+                }
+                size--;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean contains(long id) {
+            lock.readLock().lock();
+            try {
+                if (chunks.isEmpty()) {
+                    return false;
+                }
+                Chunk chunk = chunks.get(chunkFor(id));
+                return Arrays.binarySearch(chunk.values, 0, chunk.size, id) >= 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            lock.readLock().lock();
+            try {
+                long[] result = new long[size];
+                int offset = 0;
+                for (Chunk chunk : chunks) {
+                    System.arraycopy(chunk.values, 0, result, offset, chunk.size);
+                    offset += chunk.size;
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long[] page(Long afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                if (chunks.isEmpty()) {
+                    return EMPTY;
+                }
+                int index = 0;
+                int from = 0;
+                if (afterId != null) {
+                    index = chunkFor(afterId);
+                    Chunk chunk = chunks.get(index);
+                    int position = Arrays.binarySearch(chunk.values, 0, chunk.size, afterId);
+                    from = position >= 0 ? position + 1 : -position - 1;
+                }
+                long[] result = new long[Math.min(limit, size)];
+                int count = 0;
+                for (; index < chunks.size() && count < result.length; index++, from = 0) {
+                    Chunk chunk = chunks.get(index);
+                    int length = Math.min(chunk.size - from, result.length - count);
+                    System.arraycopy(chunk.values, from, result, count, length);
+                    count += length;
+                }
+                return count == result.length ? result : Arrays.copyOf(result, count);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // The first chunk whose last id is not below the given one, or the last chunk
+        private int chunkFor(long id) {
+            int low = 0;
+            int high = chunks.size() - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                Chunk chunk = chunks.get(middle);
+                if (chunk.values[chunk.size - 1] < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Chunk {
+        private final long[] values = new long[AdjacencyList.CHUNK_SIZE];
+        private int size;
+
+        private Chunk splitUpperHalf() {
+            Chunk upper = new Chunk();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(values, half, upper.values, 0, upper.size);
+            size = half;
+            return upper;
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toSortedArray() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.OutboxProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local stand-in for a message broker that keeps the most recent events in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryEventSink implements EventSink {
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    @Autowired
+    public InMemoryEventSink(OutboxProperties outboxProperties) {
+        this.capacity = outboxProperties.memoryCapacity();
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        lock.lock();
+        try {
+            for (OutboxEvent event : batch) {
+                if (events.size() == capacity) {
+                    events.removeFirst();
+                }
+                events.addLast(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<OutboxEvent> recentEvents() {
+        lock.lock();
+        try {
+            return new ArrayList<>(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.FeedProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local stand-in for an external timeline store: keeps the newest post ids of every
+ * home timeline in memory, newest first, capped at {@code feed.timeline-size} entries.
+ */
+@Component
+public class InMemoryTimelineStore implements TimelineStore {
+    private final ConcurrentMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    @Autowired
+    public InMemoryTimelineStore(FeedProperties feedProperties) {
+        this.capacity = feedProperties.timelineSize();
+    }
+
+    @Override
+    public void push(Long userId, Long postId) {
+        Timeline timeline = timelines.computeIfAbsent(userId, id -> new Timeline());
+        timeline.lock.lock();
+        try {
+            timeline.postIds.addFirst(postId);
+            while (timeline.postIds.size() > capacity) {
+                timeline.postIds.removeLast();
+            }
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    @Override
+    public void pushAll(Collection<Long> userIds, Long postId) {
+        for (Long userId : userIds) {
+            push(userId, postId);
+        }
+    }
+
+    @Override
+    public List<Long> read(Long userId, Long beforePostId, int limit) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline == null) {
+            return List.of();
+        }
+        List<Long> page = new ArrayList<>(limit);
+        timeline.lock.lock();
+        try {
+            Iterator<Long> iterator = timeline.postIds.iterator();
+            while (iterator.hasNext() && page.size() < limit) {
+                Long postId = iterator.next();
+                if (beforePostId == null || postId < beforePostId) {
+                    page.add(postId);
+                }
+            }
+        } finally {
+            timeline.lock.unlock();
+        }
+        return page;
+    }
+
+    private static final class Timeline {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<Long> postIds = new ArrayDeque<>();
+    }
+}
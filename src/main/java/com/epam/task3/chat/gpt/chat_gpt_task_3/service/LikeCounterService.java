@@ -0,0 +1,314 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.LikeCounterProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.LikeRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory like counters for posts. Likes and unlikes only touch {@link LongAdder} cells;
+ * the accumulated deltas are written to {@code posts.like_count} in periodic batched updates.
+ * Deltas that were not flushed before a crash are recovered by recounting the {@code likes}
+ * table on startup, {@code likes.counter.reconcile-batch-size} posts per statement. Posts with
+ * deltas still pending on this node are left out of the recount, as it would count those likes
+ * a second time. Beyond {@code likes.counter.max-cached-posts} the least recently used
+ * counters without pending deltas are dropped after a flush and reloaded on the next access.
+ * {@code like_count} is written behind Hibernate's back, so the flushed posts are evicted from the
+ * second-level cache to keep cached {@link Post#getLikeCount()} values from going stale.
+ */
+@Service
+public class LikeCounterService {
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterService.class);
+
+    private static final String NEXT_RECONCILE_BATCH_SQL = "select id from posts where id > ? order by id limit ?";
+    private static final String RECONCILE_SQL =
+            "update posts set like_count = (select count(*) from likes where likes.post_id = posts.id) " +
+            "where id > ? and id <= ? and like_count <> (select count(*) from likes where likes.post_id = posts.id)";
+    private static final String RECONCILE_PARTITIONED_SQL =
+            "update posts set like_count = (select count(*) from likes " +
+            "where likes.post_id = posts.id and likes.post_created_at = posts.created_at) " +
+            "where id > ? and id <= ? and like_count <> (select count(*) from likes " +
+            "where likes.post_id = posts.id and likes.post_created_at = posts.created_at)";
+    private static final String FLUSH_SQL = "update posts set like_count = like_count + ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LikeRepository likeRepository;
+    private final ShardRouter shardRouter;
+    private final LikeCounterProperties likeCounterProperties;
+    private final Cache entityCache;
+    private final boolean partitioned;
+    private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LikeCounterService(JdbcTemplate jdbcTemplate, LikeRepository likeRepository, ShardRouter shardRouter,
+                              LikeCounterProperties likeCounterProperties,
+                              PartitioningProperties partitioningProperties,
+                              EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.likeRepository = likeRepository;
+        this.shardRouter = shardRouter;
+        this.likeCounterProperties = likeCounterProperties;
+        this.entityCache = entityManagerFactory.getCache();
+        this.partitioned = partitioningProperties.enabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        int[] fixed = new int[1];
+        shardRouter.forEachShard(() -> {
+            long after = Long.MIN_VALUE;
+            List<Long> ids;
+            do {
+                ids = jdbcTemplate.queryForList(NEXT_RECONCILE_BATCH_SQL, Long.class, after,
+                        likeCounterProperties.reconcileBatchSize());
+                if (!ids.isEmpty()) {
+                    fixed[0] += reconcile(after, ids);
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == likeCounterProperties.reconcileBatchSize());
+        });
+        if (fixed[0] > 0) {
+            entityCache.evict(Post.class);
+        }
+        log.info("Reconciled like counters, {} posts corrected", fixed[0]);
+    }
+
+    // Each batch is one short statement, so only its own drifted rows are locked, and only for that statement
+    private int reconcile(long after, List<Long> ids) {
+        List<Object> args = new ArrayList<>(List.of(after, ids.get(ids.size() - 1)));
+        List<Long> cached = new ArrayList<>();
+        for (Long postId : ids) {
+            Counter counter = counters.get(postId);
+            if (counter != null) {
+                cached.add(postId);
+                if (counter.pending.sum() != 0) {
+                    args.add(postId);
+                }
+            }
+        }
+        String sql = partitioned ? RECONCILE_PARTITIONED_SQL : RECONCILE_SQL;
+        if (args.size() > 2) {
+            sql += " and id not in (" + String.join(", ", Collections.nCopies(args.size() - 2, "?")) + ")";
+        }
+        int fixed = jdbcTemplate.update(sql, args.toArray());
+        if (fixed > 0) {
+            // cached totals of recounted posts may be the drifted ones; dropped so the next access reloads them
+            for (Long postId : cached) {
+                Counter counter = counters.get(postId);
+                if (counter != null && counter.pending.sum() == 0) {
+                    evict(postId, counter);
+                }
+            }
+        }
+        return fixed;
+    }
+
+    public void recordLike(Long postId, Long userId) {
+        Counter counter = counter(postId);
+        if (counter == null) {
+            return;
+        }
+        add(postId, counter, 1);
+        Set<Long> likers = counter.likers;
+        if (likers != null) {
+            likers.add(userId);
+            if (likers.size() > likeCounterProperties.maxCachedLikers()) {
+                counter.likers = null;
+            }
+        }
+    }
+
+    public void recordUnlike(Long postId, Long userId) {
+        Counter counter = counter(postId);
+        if (counter == null) {
+            return;
+        }
+        add(postId, counter, -1);
+        Set<Long> likers = counter.likers;
+        if (likers != null) {
+            likers.remove(userId);
+        }
+    }
+
+    public long getLikeCount(Long postId) {
+        Counter counter = counter(postId);
+        return counter == null ? 0 : counter.total.sum();
+    }
+
+    public int cachedPosts() {
+        return counters.size();
+    }
+
+    public boolean hasLiked(Long userId, Long postId) {
+        Counter counter = counter(postId);
+        if (counter == null) {
+            return false;
+        }
+        Set<Long> likers = counter.likers;
+        if (likers == null && counter.total.sum() > likeCounterProperties.maxCachedLikers()) {
+            return shardRouter.readOnShard(shardRouter.shardOfPost(postId),
+                    () -> partitioned ? likeRepository.existsByUserIdAndPostIdInPartition(userId, postId)
+                            : likeRepository.existsByUserIdAndPostId(userId, postId));
+        }
+        if (likers == null) {
+            counter.likersLock.lock();
+            try {
+                likers = counter.likers;
+                if (likers == null) {
+                    likers = ConcurrentHashMap.newKeySet();
+                    likers.addAll(shardRouter.readOnShard(shardRouter.shardOfPost(postId),
+                            () -> partitioned ? likeRepository.findUserIdsByPostIdInPartition(postId)
+                                    : likeRepository.findUserIdsByPostId(postId)));
+                    counter.likers = likers;
+                }
+            } finally {
+                counter.likersLock.unlock();
+            }
+        }
+        return likers.contains(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        Map<Long, Counter> flushed = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            long delta = entry.getValue().pending.sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+                flushed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<Integer, List<Object[]>> shards = shardRouter.groupByShard(batch,
+                row -> shardRouter.shardOfPost((Long) row[1]));
+        for (Map.Entry<Integer, List<Object[]>> shard : shards.entrySet()) {
+            List<Object[]> rows = shard.getValue();
+            try {
+                shardRouter.writeOnShard(shard.getKey(), () -> jdbcTemplate.batchUpdate(FLUSH_SQL, rows));
+                for (Object[] row : rows) {
+                    entityCache.evict(Post.class, row[1]);
+                }
+            } catch (DataAccessException e) {
+                for (Object[] row : rows) {
+                    Long postId = (Long) row[1];
+                    restore(postId, flushed.get(postId), (Long) row[0]);
+                }
+                log.warn("Failed to flush {} like counters, will retry", rows.size(), e);
+            }
+        }
+        evictOverflow();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // loaded outside the map so no query runs under its bin lock; posts that do not exist are not cached
+    private Counter counter(Long postId) {
+        Counter counter = counters.get(postId);
+        if (counter == null) {
+            Long persisted = loadPersistedCount(postId);
+            if (persisted == null) {
+                return null;
+            }
+            Counter loaded = new Counter(persisted);
+            counter = counters.putIfAbsent(postId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        counter.lastUsed = System.nanoTime();
+        return counter;
+    }
+
+    private Long loadPersistedCount(Long postId) {
+        List<Long> counts = shardRouter.readOnShard(shardRouter.shardOfPost(postId),
+                () -> jdbcTemplate.queryForList("select like_count from posts where id = ?", Long.class, postId));
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    private void add(Long postId, Counter counter, long delta) {
+        counter.total.add(delta);
+        restore(postId, counter, delta);
+    }
+
+    // An evicted counter may still be held by a caller; whatever it records afterwards moves to the current one.
+    private void restore(Long postId, Counter counter, long delta) {
+        counter.pending.add(delta);
+        if (counter.evicted) {
+            moveOrphaned(postId, counter);
+        }
+    }
+
+    private void moveOrphaned(Long postId, Counter evicted) {
+        long orphaned = evicted.pending.sumThenReset();
+        if (orphaned != 0) {
+            Counter current = counter(postId);
+            if (current != null) {
+                add(postId, current, orphaned);
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        int overflow = counters.size() - likeCounterProperties.maxCachedPosts();
+        if (overflow <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, Counter>> idle = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            if (entry.getValue().pending.sum() == 0) {
+                idle.add(entry);
+            }
+        }
+        idle.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+        for (int i = 0; i < Math.min(overflow, idle.size()); i++) {
+            evict(idle.get(i).getKey(), idle.get(i).getValue());
+        }
+    }
+
+    private void evict(Long postId, Counter counter) {
+        if (counters.remove(postId, counter)) {
+            counter.evicted = true;
+            moveOrphaned(postId, counter);
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder pending = new LongAdder();
+        private final ReentrantLock likersLock = new ReentrantLock();
+        private volatile Set<Long> likers;
+        private volatile long lastUsed;
+        private volatile boolean evicted;
+
+        private Counter(long persisted) {
+            total.add(persisted);
+        }
+    }
+}
@@ -1,54 +1,298 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Like;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.BulkLikeProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.BulkLikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeOperation;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.InvalidBulkRequestException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.LikeRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class LikeService {
+    // likes carry their post's created_at so that, with partitioning enabled, each statement touches one partition
+    private static final String BATCH_INSERT_SQL = "insert into likes (id, user_id, post_id, post_created_at) " +
+            "select nextval('likes_id_seq'), ?, p.id, p.created_at from posts p where p.id = ? " +
+            "on conflict (user_id, post_id) do nothing";
+    // db/partitioning.sql has to include the partition key in the unique constraint
+    private static final String BATCH_INSERT_PARTITIONED_SQL =
+            "insert into likes (id, user_id, post_id, post_created_at) " +
+            "select nextval('likes_id_seq'), ?, p.id, p.created_at from posts p where p.id = ? " +
+            "on conflict (user_id, post_id, post_created_at) do nothing";
+    private static final String BATCH_DELETE_SQL = "delete from likes where user_id = ? and post_id = ?";
+    // only filtered with partitioning.enabled: likes written before post_created_at existed have it unset
+    private static final String BATCH_DELETE_PARTITIONED_SQL = "delete from likes where user_id = ? and post_id = ? " +
+            "and post_created_at = (select created_at from posts where id = ?)";
+
     private final LikeRepository likeRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
-
+    private final LikeCounterService likeCounterService;
+    private final TrendingService trendingService;
+    private final OutboxService outboxService;
+    private final LiveStreamService liveStreamService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final BulkLikeProperties bulkLikeProperties;
+    private final boolean partitioned;
 
     @Autowired
-    public LikeService(LikeRepository likeRepository, UserRepository userRepository, PostRepository postRepository) {
+    public LikeService(LikeRepository likeRepository, UserRepository userRepository, PostRepository postRepository,
+                       LikeCounterService likeCounterService, TrendingService trendingService,
+                       OutboxService outboxService, LiveStreamService liveStreamService,
+                       JdbcTemplate jdbcTemplate, ShardRouter shardRouter, BulkLikeProperties bulkLikeProperties,
+                       PartitioningProperties partitioningProperties) {
         this.likeRepository = likeRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.likeCounterService = likeCounterService;
+        this.trendingService = trendingService;
+        this.outboxService = outboxService;
+        this.liveStreamService = liveStreamService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.bulkLikeProperties = bulkLikeProperties;
+        this.partitioned = partitioningProperties.enabled();
+    }
+
+    @Transactional
+    public LikeResult likePost(Long userId, @ShardKey(ShardKey.Type.POST) Long postId) {
+        // likes live on the post's shard, where no foreign key can check a user stored on another one
+        if (shardRouter.enabled() && !userExists(userId)) {
+            throw new NotFoundException("User or post not found");
+        }
+        int inserted;
+        try {
+            inserted = partitioned ? likeRepository.insertIfAbsentInPartition(userId, postId)
+                    : likeRepository.insertIfAbsent(userId, postId);
+        } catch (DataIntegrityViolationException e) {
+            throw new NotFoundException("User or post not found");
+        }
+        if (inserted == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new NotFoundException("User or post not found");
+            }
+            return LikeResult.ALREADY_LIKED;
+        }
+        outboxService.record(EventType.POST_LIKED, postId, likePayload(userId, postId));
+        afterCommit(() -> liked(postId, userId));
+        return LikeResult.LIKED;
+    }
+
+    @Transactional
+    public LikeResult unlikePost(Long userId, @ShardKey(ShardKey.Type.POST) Long postId) {
+        int deleted = partitioned ? likeRepository.deleteByUserIdAndPostIdInPartition(userId, postId)
+                : likeRepository.deleteByUserIdAndPostId(userId, postId);
+        if (deleted == 0) {
+            return LikeResult.NOT_LIKED;
+        }
+        outboxService.record(EventType.POST_UNLIKED, postId, likePayload(userId, postId));
+        afterCommit(() -> unliked(postId, userId));
+        return LikeResult.UNLIKED;
     }
 
-    public void likePost(Long userId, Long postId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    /**
+     * Applies queued like/unlike operations. Only the last operation per (user, post) pair is
+     * executed, earlier ones are reported as {@link LikeResult#SUPERSEDED}; the rest are written
+     * with one JDBC batch per operation type, and with sharding enabled one transaction per shard.
+     * Batches larger than {@code likes.bulk.max-operations} or with incomplete operations are rejected whole.
+     */
+    @Transactional
+    public List<BulkLikeResult> applyBatch(List<LikeOperation> operations) {
+        validate(operations);
+        LikeResult[] results = new LikeResult[operations.size()];
+        Map<LikeKey, Integer> latest = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            LikeOperation operation = operations.get(i);
+            Integer previous = latest.put(new LikeKey(operation.userId(), operation.postId()), i);
+            if (previous != null) {
+                results[previous] = LikeResult.SUPERSEDED;
+            }
+        }
+
+        Set<Long> existingUsers = new HashSet<>(shardRouter.gatherByShard(
+                latest.keySet().stream().map(LikeKey::userId).collect(Collectors.toSet()),
+                shardRouter::shardOfUser, userRepository::findExistingIds, null, Integer.MAX_VALUE));
+        Set<Long> existingPosts = new HashSet<>(shardRouter.gatherByShard(
+                latest.keySet().stream().map(LikeKey::postId).collect(Collectors.toSet()),
+                shardRouter::shardOfPost, postRepository::findExistingIds, null, Integer.MAX_VALUE));
+
+        List<Integer> writes = new ArrayList<>();
+        for (int index : latest.values()) {
+            LikeOperation operation = operations.get(index);
+            if (!existingUsers.contains(operation.userId()) || !existingPosts.contains(operation.postId())) {
+                results[index] = LikeResult.NOT_FOUND;
+            } else {
+                writes.add(index);
+            }
+        }
+
+        Map<Integer, List<Integer>> shards = shardRouter.groupByShard(writes,
+                index -> shardRouter.shardOfPost(operations.get(index).postId()));
+        for (Map.Entry<Integer, List<Integer>> shard : shards.entrySet()) {
+            shardRouter.writeOnShard(shard.getKey(), () -> {
+                applyWrites(operations, shard.getValue(), results);
+                return null;
+            });
+        }
 
-        if (likeRepository.findByUserAndPost(user, post).isPresent()) {
-            throw new RuntimeException("Post already liked by the user");
+        List<BulkLikeResult> report = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            LikeOperation operation = operations.get(i);
+            report.add(new BulkLikeResult(operation.userId(), operation.postId(), operation.op(), results[i]));
         }
+        return report;
+    }
 
-        Like like = new Like();
-        like.setUser(user);
-        like.setPost(post);
-        likeRepository.save(like);
+    public long getLikeCount(Long postId) {
+        return likeCounterService.getLikeCount(postId);
     }
 
-    public void unlikePost(Long userId, Long postId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    public boolean hasLiked(Long userId, Long postId) {
+        return likeCounterService.hasLiked(userId, postId);
+    }
+
+    private void applyWrites(List<LikeOperation> operations, List<Integer> writes, LikeResult[] results) {
+        List<Integer> likes = new ArrayList<>();
+        List<Integer> unlikes = new ArrayList<>();
+        for (int index : writes) {
+            if (operations.get(index).op() == LikeOperation.Type.LIKE) {
+                likes.add(index);
+            } else {
+                unlikes.add(index);
+            }
+        }
 
-        Like like = likeRepository.findByUserAndPost(user, post)
-                .orElseThrow(() -> new RuntimeException("Like not found"));
+        List<OutboxService.Event> events = new ArrayList<>();
+        List<LikeOperation> applied = new ArrayList<>();
+        String insertSql = partitioned ? BATCH_INSERT_PARTITIONED_SQL : BATCH_INSERT_SQL;
+        int[] inserted = executeBatch(insertSql, operations, likes,
+                operation -> new Object[]{operation.userId(), operation.postId()});
+        for (int i = 0; i < likes.size(); i++) {
+            LikeOperation operation = operations.get(likes.get(i));
+            if (inserted[i] > 0) {
+                events.add(new OutboxService.Event(EventType.POST_LIKED, operation.postId(),
+                        likePayload(operation.userId(), operation.postId())));
+                applied.add(operation);
+                results[likes.get(i)] = LikeResult.LIKED;
+            } else {
+                results[likes.get(i)] = LikeResult.ALREADY_LIKED;
+            }
+        }
+
+        int[] deleted = partitioned
+                ? executeBatch(BATCH_DELETE_PARTITIONED_SQL, operations, unlikes,
+                        operation -> new Object[]{operation.userId(), operation.postId(), operation.postId()})
+                : executeBatch(BATCH_DELETE_SQL, operations, unlikes,
+                        operation -> new Object[]{operation.userId(), operation.postId()});
+        for (int i = 0; i < unlikes.size(); i++) {
+            LikeOperation operation = operations.get(unlikes.get(i));
+            if (deleted[i] > 0) {
+                events.add(new OutboxService.Event(EventType.POST_UNLIKED, operation.postId(),
+                        likePayload(operation.userId(), operation.postId())));
+                applied.add(operation);
+                results[unlikes.get(i)] = LikeResult.UNLIKED;
+            } else {
+                results[unlikes.get(i)] = LikeResult.NOT_LIKED;
+            }
+        }
 
-        likeRepository.delete(like);
+        outboxService.recordAll(events);
+        afterCommit(() -> {
+            for (LikeOperation operation : applied) {
+                if (operation.op() == LikeOperation.Type.LIKE) {
+                    liked(operation.postId(), operation.userId());
+                } else {
+                    unliked(operation.postId(), operation.userId());
+                }
+            }
+        });
+    }
+
+    // in-memory counters and subscribers only learn about likes that were committed
+    private void liked(Long postId, Long userId) {
+        likeCounterService.recordLike(postId, userId);
+        trendingService.recordLike(postId);
+        liveStreamService.likeCountChanged(postId);
+    }
+
+    private void unliked(Long postId, Long userId) {
+        likeCounterService.recordUnlike(postId, userId);
+        trendingService.recordUnlike(postId);
+        liveStreamService.likeCountChanged(postId);
+    }
+
+    private void validate(List<LikeOperation> operations) {
+        if (operations == null) {
+            throw new InvalidBulkRequestException("Operations are required");
+        }
+        if (operations.size() > bulkLikeProperties.maxOperations()) {
+            throw new InvalidBulkRequestException("At most " + bulkLikeProperties.maxOperations()
+                    + " operations are accepted per request");
+        }
+        for (LikeOperation operation : operations) {
+            if (operation == null || operation.userId() == null || operation.postId() == null
+                    || operation.op() == null) {
+                throw new InvalidBulkRequestException("Every operation needs userId, postId and op");
+            }
+        }
+    }
+
+    private boolean userExists(Long userId) {
+        return shardRouter.readOnShard(shardRouter.shardOfUser(userId), () -> userRepository.findById(userId).isPresent());
     }
-}
 
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Map<String, Long> likePayload(Long userId, Long postId) {
+        return Map.of("userId", userId, "postId", postId);
+    }
+
+    private int[] executeBatch(String sql, List<LikeOperation> operations, List<Integer> indexes,
+                               Function<LikeOperation, Object[]> parameters) {
+        if (indexes.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            args.add(parameters.apply(operations.get(index)));
+        }
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private record LikeKey(Long userId, Long postId) {
+    }
+}
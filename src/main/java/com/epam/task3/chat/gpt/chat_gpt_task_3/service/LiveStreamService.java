@@ -0,0 +1,319 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.LiveStreamProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeCountUpdate;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.TooManySubscribersException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes new posts from followed authors and like counts of on-screen posts over SSE. Idle
+ * connections hold no thread; events are queued per connection and written by short-lived
+ * virtual-thread tasks, at most one per connection at a time. A slow client that fills its queue
+ * loses the oldest posts and gets an {@code overflow} event telling it to refetch. Like changes
+ * are collected per post and sent as the latest count once per dispatch interval.
+ */
+@Service
+public class LiveStreamService {
+    private final LiveStreamProperties liveStreamProperties;
+    private final FollowGraphService followGraphService;
+    private final LikeCounterService likeCounterService;
+    private final ExecutorService sender;
+    private final Supplier<SseEmitter> emitterFactory;
+    private final AtomicInteger activeSubscriptions = new AtomicInteger();
+    private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Subscription>> watchersByPost = new ConcurrentHashMap<>();
+    private final Set<Long> changedLikeCounts = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LiveStreamService(LiveStreamProperties liveStreamProperties, FollowGraphService followGraphService,
+                             LikeCounterService likeCounterService) {
+        this(liveStreamProperties, followGraphService, likeCounterService,
+                Executors.newVirtualThreadPerTaskExecutor(),
+                () -> new SseEmitter(liveStreamProperties.timeout().toMillis()));
+    }
+
+    LiveStreamService(LiveStreamProperties liveStreamProperties, FollowGraphService followGraphService,
+                      LikeCounterService likeCounterService, ExecutorService sender,
+                      Supplier<SseEmitter> emitterFactory) {
+        this.liveStreamProperties = liveStreamProperties;
+        this.followGraphService = followGraphService;
+        this.likeCounterService = likeCounterService;
+        this.sender = sender;
+        this.emitterFactory = emitterFactory;
+    }
+
+    public SseEmitter subscribe(Long userId, Collection<Long> watchedPostIds) {
+        if (activeSubscriptions.incrementAndGet() > liveStreamProperties.maxSubscribers()) {
+            activeSubscriptions.decrementAndGet();
+            throw new TooManySubscribersException("Live stream subscriber limit reached");
+        }
+        SseEmitter emitter = emitterFactory.get();
+        Subscription subscription = new Subscription(UUID.randomUUID().toString(), userId, emitter);
+        subscriptions.put(subscription.id, subscription);
+        subscriptionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+
+        subscription.enqueue(new StreamEvent("subscribed", Map.of("subscriptionId", subscription.id)));
+        watch(subscription, watchedPostIds);
+        flush(subscription);
+        return emitter;
+    }
+
+    public void watch(String subscriptionId, Collection<Long> postIds) {
+        Subscription subscription = subscriptions.get(subscriptionId);
+        if (subscription == null) {
+            throw new NotFoundException("Subscription not found");
+        }
+        watch(subscription, postIds);
+    }
+
+    public void publishPost(Post post) {
+        PostSummary summary = PostSummary.from(post);
+        afterCommit(() -> route(summary));
+    }
+
+    public void likeCountChanged(Long postId) {
+        if (watchersByPost.containsKey(postId)) {
+            changedLikeCounts.add(postId);
+        }
+    }
+
+    public int activeSubscriptions() {
+        return activeSubscriptions.get();
+    }
+
+    @Scheduled(fixedDelayString = "${posts.stream.dispatch-interval-ms:250}")
+    public void dispatchLikeCounts() {
+        Iterator<Long> changed = changedLikeCounts.iterator();
+        while (changed.hasNext()) {
+            Long postId = changed.next();
+            changed.remove();
+            Set<Subscription> watchers = watchersByPost.get(postId);
+            if (watchers == null) {
+                continue;
+            }
+            long likeCount = likeCounterService.getLikeCount(postId);
+            for (Subscription subscription : watchers) {
+                subscription.pendingLikeCounts.put(postId, likeCount);
+                flush(subscription);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${posts.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.enqueue(StreamEvent.HEARTBEAT);
+            flush(subscription);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subscription -> subscription.emitter.complete());
+        sender.shutdown();
+    }
+
+    private void route(PostSummary post) {
+        StreamEvent event = new StreamEvent("post", post);
+        deliver(subscriptionsByUser.get(post.authorId()), event);
+
+        if (followGraphService.followerCount(post.authorId()) <= subscriptionsByUser.size()) {
+            for (long followerId : followGraphService.followersOf(post.authorId())) {
+                deliver(subscriptionsByUser.get(followerId), event);
+            }
+            return;
+        }
+        for (Map.Entry<Long, Set<Subscription>> entry : subscriptionsByUser.entrySet()) {
+            if (followGraphService.follows(entry.getKey(), post.authorId())) {
+                deliver(entry.getValue(), event);
+            }
+        }
+    }
+
+    private void deliver(Set<Subscription> targets, StreamEvent event) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscription subscription : targets) {
+            subscription.enqueue(event);
+            flush(subscription);
+        }
+    }
+
+    private void watch(Subscription subscription, Collection<Long> postIds) {
+        for (Long postId : subscription.watchedPostIds) {
+            unwatch(subscription, postId);
+        }
+        subscription.watchedPostIds.clear();
+        if (postIds == null) {
+            return;
+        }
+        postIds.stream()
+                .distinct()
+                .limit(liveStreamProperties.maxWatchedPosts())
+                .forEach(postId -> {
+                    subscription.watchedPostIds.add(postId);
+                    watchersByPost.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+                });
+    }
+
+    private void unwatch(Subscription subscription, Long postId) {
+        watchersByPost.computeIfPresent(postId, (id, watchers) -> {
+            watchers.remove(subscription);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription.id) == null) {
+            return;
+        }
+        activeSubscriptions.decrementAndGet();
+        subscriptionsByUser.computeIfPresent(subscription.userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+        for (Long postId : subscription.watchedPostIds) {
+            unwatch(subscription, postId);
+        }
+    }
+
+    private void flush(Subscription subscription) {
+        if (subscription.flushing.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            StreamEvent event;
+            while ((event = subscription.poll()) != null) {
+                subscription.emitter.send(event.toSse());
+            }
+            for (Long postId : subscription.pendingLikeCounts.keySet()) {
+                Long likeCount = subscription.pendingLikeCounts.remove(postId);
+                if (likeCount != null) {
+                    subscription.emitter.send(SseEmitter.event().name("likes")
+                            .data(new LikeCountUpdate(postId, likeCount)));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscription);
+            subscription.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscription.flushing.set(false);
+        }
+        if (subscription.hasPending()) {
+            flush(subscription);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private final class Subscription {
+        private final String id;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<StreamEvent> queue = new ArrayDeque<>();
+        private final Map<Long, Long> pendingLikeCounts = new ConcurrentHashMap<>();
+        private final Set<Long> watchedPostIds = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private boolean overflowed;
+
+        private Subscription(String id, Long userId, SseEmitter emitter) {
+            this.id = id;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(StreamEvent event) {
+            lock.lock();
+            try {
+                if (queue.size() >= liveStreamProperties.queueCapacity()) {
+                    queue.pollFirst();
+                    overflowed = true;
+                }
+                queue.addLast(event);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private StreamEvent poll() {
+            lock.lock();
+            try {
+                if (overflowed) {
+                    overflowed = false;
+                    return StreamEvent.OVERFLOW;
+                }
+                return queue.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean hasPending() {
+            lock.lock();
+            try {
+                return overflowed || !queue.isEmpty() || !pendingLikeCounts.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record StreamEvent(String name, Object data) {
+        private static final StreamEvent HEARTBEAT = new StreamEvent(null, null);
+        private static final StreamEvent OVERFLOW = new StreamEvent("overflow", "Events were dropped, refetch posts");
+
+        private SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.NotificationProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.NotificationPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.NotificationView;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Notification;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies followers of new posts off the request path. A committed post enqueues one task on a
+ * bounded worker pool; the worker pages through the author's followers in keyset chunks and writes
+ * one batched insert per chunk. When the queue is full, {@code notifications.drop-policy} decides
+ * which task is given up.
+ */
+@Service
+public class NotificationService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    private static final String FOLLOWERS_SQL =
+            "select follower_id from user_following where following_id = ? and follower_id > ? " +
+            "order by follower_id limit ?";
+    private static final String INSERT_SQL =
+            "insert into notifications (user_id, post_id, actor_id, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NotificationProperties notificationProperties;
+    private final ShardRouter shardRouter;
+    private final ThreadPoolExecutor executor;
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter written;
+    private final Timer fanOutTimer;
+
+    @Autowired
+    public NotificationService(JdbcTemplate jdbcTemplate, NotificationRepository notificationRepository,
+                               NotificationProperties notificationProperties, ShardRouter shardRouter,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationRepository = notificationRepository;
+        this.notificationProperties = notificationProperties;
+        this.shardRouter = shardRouter;
+        this.enqueued = meterRegistry.counter("notifications.tasks.enqueued");
+        this.dropped = meterRegistry.counter("notifications.tasks.dropped",
+                "policy", notificationProperties.dropPolicy().name());
+        this.failed = meterRegistry.counter("notifications.tasks.failed");
+        this.written = meterRegistry.counter("notifications.written");
+        this.fanOutTimer = meterRegistry.timer("notifications.fanout");
+        this.executor = new ThreadPoolExecutor(notificationProperties.workers(), notificationProperties.workers(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(notificationProperties.queueCapacity()),
+                Thread.ofPlatform().name("notifications-", 0).daemon().factory(),
+                dropPolicy(notificationProperties.dropPolicy(), dropped));
+        new ExecutorServiceMetrics(executor, "notifications", List.of()).bindTo(meterRegistry);
+    }
+
+    public void notifyFollowers(Post post) {
+        Long postId = post.getId();
+        Long authorId = post.getAuthor().getId();
+        LocalDateTime createdAt = post.getCreatedAt();
+        afterCommit(() -> {
+            enqueued.increment();
+            executor.execute(() -> {
+                try {
+                    fanOutTimer.record(() -> fanOut(postId, authorId, createdAt));
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    log.error("Failed to notify followers of user {} about post {}", authorId, postId, e);
+                }
+            });
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public NotificationPage getNotifications(@ShardKey Long userId, Long before, Integer size) {
+        int limit = notificationProperties.resolvePageSize(size);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Notification> notifications = before == null
+                ? notificationRepository.findFirstPage(userId, pageable)
+                : notificationRepository.findPageBefore(userId, before, pageable);
+        List<NotificationView> items = notifications.stream()
+                .limit(limit)
+                .map(NotificationView::from)
+                .toList();
+        Long nextBefore = notifications.size() > limit ? items.get(limit - 1).id() : null;
+        return new NotificationPage(items, notificationRepository.countByUserIdAndReadAtIsNull(userId), nextBefore);
+    }
+
+    @Transactional
+    public int markRead(@ShardKey Long userId, Long upTo) {
+        return notificationRepository.markRead(userId, upTo == null ? Long.MAX_VALUE : upTo, LocalDateTime.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // A follow row and the notifications it produces both live on the follower's shard, so each shard
+    // notifies its own share of the author's followers.
+    void fanOut(Long postId, Long authorId, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        shardRouter.forEachShard(() -> fanOutShard(postId, authorId, timestamp));
+    }
+
+    private void fanOutShard(Long postId, Long authorId, Timestamp timestamp) {
+        int chunkSize = notificationProperties.chunkSize();
+        long after = 0;
+        while (true) {
+            List<Long> followers = jdbcTemplate.queryForList(FOLLOWERS_SQL, Long.class, authorId, after, chunkSize);
+            if (followers.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, followers, followers.size(), (ps, followerId) -> {
+                ps.setLong(1, followerId);
+                ps.setLong(2, postId);
+                ps.setLong(3, authorId);
+                ps.setTimestamp(4, timestamp);
+            });
+            written.increment(followers.size());
+            if (followers.size() < chunkSize) {
+                return;
+            }
+            after = followers.get(followers.size() - 1);
+        }
+    }
+
+    static RejectedExecutionHandler dropPolicy(NotificationProperties.DropPolicy policy, Counter dropped) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                dropped.increment();
+                return;
+            }
+            switch (policy) {
+                case CALLER_RUNS -> task.run();
+                case DISCARD_NEWEST -> dropped.increment();
+                case DISCARD_OLDEST -> {
+                    if (pool.getQueue().poll() != null) {
+                        dropped.increment();
+                    }
+                    pool.execute(task);
+                }
+            }
+        };
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
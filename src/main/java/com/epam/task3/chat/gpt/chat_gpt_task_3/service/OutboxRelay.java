@@ -0,0 +1,118 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.OutboxProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.OutboxEvent;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves committed outbox events to the {@link EventSink}. Batches are read and published in id
+ * order; rows are deleted only after the sink accepts the batch, so a crash in between redelivers it.
+ * A transaction-scoped advisory lock lets only one relay instance drain a shard at a time, so batches
+ * reach the sink one after another. Ids are taken at insert but become visible at commit, so rows
+ * younger than {@code outbox.commit-lag} are left for the next pass: a transaction that took a lower
+ * id and commits within that window is still published before them. Events of a transaction that
+ * stays open longer than the window can reach the sink after later ones.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final long RELAY_LOCK_KEY = 0x6F7574626F78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventSink eventSink;
+    private final OutboxProperties outboxProperties;
+    private final ShardRouter shardRouter;
+    private final TransactionOperations transaction;
+    private final Counter publishedCounter;
+    private volatile LocalDateTime oldestPendingAt;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventSink eventSink,
+                       OutboxProperties outboxProperties, ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(outboxEventRepository, eventSink, outboxProperties, shardRouter,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, EventSink eventSink, OutboxProperties outboxProperties,
+                ShardRouter shardRouter, TransactionOperations transaction, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventSink = eventSink;
+        this.outboxProperties = outboxProperties;
+        this.shardRouter = shardRouter;
+        this.transaction = transaction;
+        this.publishedCounter = Counter.builder("outbox.events.published").register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", this, relay -> relay.lag().toMillis() / 1000.0)
+                .description("Age of the oldest event not yet delivered to the sink")
+                .register(meterRegistry);
+    }
+
+    // Every shard has its own outbox, written in the same transactions as its rows. An aggregate never spans
+    // shards, so relaying shard by shard keeps each aggregate's events in order.
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void relay() {
+        LocalDateTime[] oldest = new LocalDateTime[1];
+        shardRouter.forEachShard(() -> {
+            LocalDateTime pending = relayShard();
+            if (pending != null && (oldest[0] == null || pending.isBefore(oldest[0]))) {
+                oldest[0] = pending;
+            }
+        });
+        oldestPendingAt = oldest[0];
+    }
+
+    private LocalDateTime relayShard() {
+        int batchSize = outboxProperties.batchSize();
+        LocalDateTime[] failedAt = new LocalDateTime[1];
+        Integer relayed;
+        do {
+            relayed = transaction.execute(status -> {
+                if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_KEY)) {
+                    return 0;
+                }
+                List<OutboxEvent> batch = outboxEventRepository.findOldest(
+                        LocalDateTime.now().minus(outboxProperties.commitLag()), PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return 0;
+                }
+                oldestPendingAt = batch.get(0).getCreatedAt();
+                try {
+                    eventSink.publish(batch);
+                } catch (Exception e) {
+                    log.warn("Publishing {} outbox events failed, will retry", batch.size(), e);
+                    failedAt[0] = batch.get(0).getCreatedAt();
+                    return 0;
+                }
+                outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+                publishedCounter.increment(batch.size());
+                return batch.size();
+            });
+        } while (relayed != null && relayed == batchSize);
+        return failedAt[0];
+    }
+
+    public Duration lag() {
+        LocalDateTime oldest = oldestPendingAt;
+        if (oldest == null) {
+            return Duration.ZERO;
+        }
+        Duration lag = Duration.between(oldest, LocalDateTime.now());
+        return lag.isNegative() ? Duration.ZERO : lag;
+    }
+}
@@ -0,0 +1,115 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly {@code posts} and {@code likes} partitions (see {@code db/partitioning.sql}) ahead of the clock
+ * and moves partitions older than {@code partitioning.retention-months} out of the live tables into the archive schema.
+ */
+@Service
+@ConditionalOnProperty(name = "partitioning.enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+    // likes partitions hold the likes of the posts in the matching posts partition, so they are detached first
+    private static final List<String> TABLES = List.of("likes", "posts");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^[a-z]+_p(\\d{4})_(\\d{2})$");
+    private static final String PARTITIONS_SQL = "select c.relname from pg_inherits i " +
+            "join pg_class c on c.oid = i.inhrelid " +
+            "join pg_class p on p.oid = i.inhparent " +
+            "where p.relname = ? order by c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitioningProperties partitioningProperties;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+
+    @Autowired
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate, PartitioningProperties partitioningProperties,
+                                       ShardRouter shardRouter) {
+        this(jdbcTemplate, partitioningProperties, shardRouter, Clock.systemDefaultZone());
+    }
+
+    PartitionMaintenanceService(JdbcTemplate jdbcTemplate, PartitioningProperties partitioningProperties,
+                                ShardRouter shardRouter, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitioningProperties = partitioningProperties;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        shardRouter.forEachShard(() -> {
+            createUpcoming();
+            archiveExpired();
+        });
+    }
+
+    void createUpcoming() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= partitioningProperties.premakeMonths(); i++) {
+            YearMonth month = current.plusMonths(i);
+            for (String table : List.of("posts", "likes")) {
+                jdbcTemplate.execute("create table if not exists " + partitionName(table, month) +
+                        " partition of " + table + " for values from ('" + month.atDay(1) + "') to ('" +
+                        month.plusMonths(1).atDay(1) + "')");
+            }
+        }
+    }
+
+    void archiveExpired() {
+        int retentionMonths = partitioningProperties.retentionMonths();
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now(clock).minusMonths(retentionMonths);
+        for (String table : TABLES) {
+            for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table)) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(cutoff)) {
+                    archive(table, partition);
+                }
+            }
+        }
+    }
+
+    // Must run outside a transaction: DETACH ... CONCURRENTLY only takes a SHARE UPDATE EXCLUSIVE lock on the parent,
+    // so reads and writes to the live months keep going while an old month is detached.
+    private void archive(String table, String partition) {
+        String schema = partitioningProperties.archiveSchema();
+        jdbcTemplate.execute("create schema if not exists " + schema);
+        jdbcTemplate.execute("alter table " + table + " detach partition " + partition + " concurrently");
+        jdbcTemplate.execute("alter table " + partition + " set schema " + schema);
+        log.info("Archived partition {} of {} to schema {}", partition, table, schema);
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
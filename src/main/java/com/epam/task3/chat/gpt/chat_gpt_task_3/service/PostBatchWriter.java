@@ -0,0 +1,198 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.GroupCommitProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit for post creation. Callers put their post on a lock-free queue and get a future; a single writer
+ * thread drains the queue into batches of up to {@code posts.group-commit.max-batch-size} posts, waiting at most
+ * {@code posts.group-commit.max-delay} after the oldest one, and writes each batch with one insert and one commit.
+ * When the queue is full the caller writes its post itself, as it does when group commit is disabled.
+ */
+@Service
+public class PostBatchWriter {
+    private static final Logger log = LoggerFactory.getLogger(PostBatchWriter.class);
+
+    private final PostService postService;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionOperations transaction;
+    private final GroupCommitProperties groupCommitProperties;
+    private final ConcurrentLinkedQueue<PendingPost> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final DistributionSummary batchSize;
+    private final DistributionSummary fillRatio;
+    private final Timer flushTimer;
+    private final Counter overflow;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public PostBatchWriter(PostService postService, UserRepository userRepository, ShardRouter shardRouter,
+                           PlatformTransactionManager transactionManager,
+                           GroupCommitProperties groupCommitProperties, MeterRegistry meterRegistry) {
+        this(postService, userRepository, shardRouter, new TransactionTemplate(transactionManager),
+                groupCommitProperties, meterRegistry);
+    }
+
+    PostBatchWriter(PostService postService, UserRepository userRepository, ShardRouter shardRouter,
+                    TransactionOperations transaction, GroupCommitProperties groupCommitProperties,
+                    MeterRegistry meterRegistry) {
+        this.postService = postService;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.transaction = transaction;
+        this.groupCommitProperties = groupCommitProperties;
+        this.batchSize = DistributionSummary.builder("posts.group.commit.batch.size")
+                .register(meterRegistry);
+        this.fillRatio = DistributionSummary.builder("posts.group.commit.fill.ratio")
+                .description("Batch size as a share of posts.group-commit.max-batch-size")
+                .register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("posts.group.commit.flush");
+        this.overflow = meterRegistry.counter("posts.group.commit.overflow");
+        meterRegistry.gauge("posts.group.commit.queued", queued);
+        if (groupCommitProperties.enabled()) {
+            this.writer = Thread.ofPlatform().name("post-group-commit").daemon().start(this::run);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public CompletableFuture<Post> submit(Long userId, String title, String body) {
+        if (writer == null || !running) {
+            return CompletableFuture.completedFuture(postService.createPost(userId, title, body));
+        }
+        if (queued.incrementAndGet() > groupCommitProperties.queueCapacity()) {
+            queued.decrementAndGet();
+            overflow.increment();
+            return CompletableFuture.completedFuture(postService.createPost(userId, title, body));
+        }
+        PendingPost pending = new PendingPost(userId, title, body, System.nanoTime(), new CompletableFuture<>());
+        queue.offer(pending);
+        // the writer may have drained the queue and exited since running was read; a post it never took is
+        // written here instead of waiting forever
+        if (!running && queue.remove(pending)) {
+            queued.decrementAndGet();
+            return CompletableFuture.completedFuture(postService.createPost(userId, title, body));
+        }
+        LockSupport.unpark(writer);
+        return pending.result();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(groupCommitProperties.maxDelay().toMillis() + 10_000);
+    }
+
+    private void run() {
+        List<PendingPost> batch = new ArrayList<>(groupCommitProperties.maxBatchSize());
+        while (running || !queue.isEmpty()) {
+            if (!fill(batch)) {
+                LockSupport.park(this);
+                continue;
+            }
+            queued.addAndGet(-batch.size());
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    // Takes posts until the batch is full or the oldest one has waited max-delay. Returns false when idle.
+    boolean fill(List<PendingPost> batch) {
+        PendingPost first = queue.poll();
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = first.enqueuedAt() + groupCommitProperties.maxDelay().toNanos();
+        while (batch.size() < groupCommitProperties.maxBatchSize()) {
+            PendingPost next = queue.poll();
+            if (next != null) {
+                batch.add(next);
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                break;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+
+    void flush(List<PendingPost> batch) {
+        batchSize.record(batch.size());
+        fillRatio.record((double) batch.size() / groupCommitProperties.maxBatchSize());
+        flushTimer.record(() -> shardRouter.groupByShard(batch, pending -> shardRouter.shardOfUser(pending.userId()))
+                .forEach((shard, group) -> {
+                    try {
+                        Runnable complete = shardRouter.writeOnShard(shard,
+                                () -> transaction.execute(status -> write(group)));
+                        complete.run();
+                    } catch (RuntimeException e) {
+                        log.error("Failed to write a batch of {} posts", group.size(), e);
+                        group.forEach(pending -> pending.result().completeExceptionally(e));
+                    }
+                }));
+    }
+
+    // Returns the completion of the written posts' futures, to be run once the transaction has committed.
+    private Runnable write(List<PendingPost> group) {
+        Map<Long, User> authors = userRepository.findAllById(group.stream().map(PendingPost::userId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<PendingPost> accepted = new ArrayList<>(group.size());
+        List<Post> posts = new ArrayList<>(group.size());
+        for (PendingPost pending : group) {
+            User author = authors.get(pending.userId());
+            if (author == null) {
+                pending.result().completeExceptionally(new RuntimeException("User not found"));
+                continue;
+            }
+            Post post = new Post();
+            post.setTitle(pending.title());
+            post.setBody(pending.body());
+            post.setAuthor(author);
+            accepted.add(pending);
+            posts.add(post);
+        }
+        postService.createPosts(posts);
+        return () -> {
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).result().complete(posts.get(i));
+            }
+        };
+    }
+
+    record PendingPost(Long userId, String title, String body, long enqueuedAt, CompletableFuture<Post> result) {
+    }
+}
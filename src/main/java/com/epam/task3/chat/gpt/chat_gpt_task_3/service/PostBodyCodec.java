@@ -0,0 +1,101 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostBodyProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Splits post bodies into the preview kept on {@code posts} and, for bodies longer than
+ * {@code posts.body.preview-length}, a {@link PostBody} holding the full text. The full text is deflated
+ * unless that would not make it smaller.
+ */
+@Component
+public class PostBodyCodec {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final PostBodyProperties postBodyProperties;
+
+    @Autowired
+    public PostBodyCodec(PostBodyProperties postBodyProperties) {
+        this.postBodyProperties = postBodyProperties;
+    }
+
+    public void applyPreview(Post post) {
+        post.setPreview(preview(post.getBody()));
+        post.setTruncated(post.getPreview().length() < post.getBody().length());
+    }
+
+    public String preview(String body) {
+        int length = postBodyProperties.previewLength();
+        if (body.length() <= length) {
+            return body;
+        }
+        if (Character.isHighSurrogate(body.charAt(length - 1))) {
+            length--;
+        }
+        return body.substring(0, length);
+    }
+
+    public PostBody encode(Long postId, String body) {
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        byte[] deflated = deflate(raw);
+        if (deflated.length < raw.length) {
+            return new PostBody(postId, PostBody.Encoding.DEFLATE, deflated);
+        }
+        return new PostBody(postId, PostBody.Encoding.PLAIN, raw);
+    }
+
+    public String decode(PostBody postBody) {
+        return decode(postBody.getEncoding(), postBody.getContent());
+    }
+
+    public String decode(PostBody.Encoding encoding, byte[] content) {
+        byte[] raw = encoding == PostBody.Encoding.DEFLATE ? inflate(content) : content;
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(postBodyProperties.compressionLevel());
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] content) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(content);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(content.length * 3);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated post body");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt post body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SearchProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over post titles and bodies. Each term maps to a postings list of post ids with
+ * per-field term frequencies; queries are scored with BM25 over a weighted title + body frequency,
+ * so a match in the title counts {@code titleBoost} times as much as one in the body.
+ */
+@Component
+public class PostSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final double titleBoost;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Double> documentLengths = new HashMap<>();
+    private double totalLength;
+
+    @Autowired
+    public PostSearchIndex(SearchProperties searchProperties) {
+        this.titleBoost = searchProperties.titleBoost();
+    }
+
+    public void index(Long postId, String title, String body) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int titleTerms = countTerms(title, 0, frequencies);
+        int bodyTerms = countTerms(body, 1, frequencies);
+        double length = titleBoost * titleTerms + bodyTerms;
+
+        lock.writeLock().lock();
+        try {
+            if (documentLengths.containsKey(postId)) {
+                return;
+            }
+            frequencies.forEach((term, tf) ->
+                    postings.computeIfAbsent(term, t -> new Postings()).add(postId, tf[0], tf[1]));
+            documentLengths.put(postId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every post matching at least one query term and returns the ids on the requested
+     * page, best match first. Equal scores are ordered newest first.
+     */
+    public Hits search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            double averageLength = documentCount == 0 ? 0 : totalLength / documentCount;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    double tf = titleBoost * list.titleFrequencies[i] + list.bodyFrequencies[i];
+                    double norm = averageLength == 0
+                            ? 1 : 1 - B + B * documentLengths.get(list.postIds[i]) / averageLength;
+                    scores.merge(list.postIds[i], idf * tf * (K1 + 1) / (tf + K1 * norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // in long so that large page numbers cannot overflow; pages past the last hit are empty
+        long offset = (long) page * size;
+        if (page < 0 || size <= 0 || offset >= scores.size()) {
+            return new Hits(List.of(), scores.size());
+        }
+        int wanted = (int) Math.min(offset + size, scores.size());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(
+                Math.max(1, Math.min(wanted, scores.size())), PostSearchIndex::compareHits);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        List<Long> pageIds = new ArrayList<>();
+        for (int i = ranked.size() - 1 - (int) offset; i >= 0 && pageIds.size() < size; i--) {
+            pageIds.add(ranked.get(i));
+        }
+        return new Hits(pageIds, scores.size());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static int countTerms(String text, int field, Map<String, int[]> frequencies) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.computeIfAbsent(token, t -> new int[2])[field]++;
+        }
+        return tokens.size();
+    }
+
+    private static int compareHits(Map.Entry<Long, Double> a, Map.Entry<Long, Double> b) {
+        int byScore = Double.compare(a.getValue(), b.getValue());
+        return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+    }
+
+    public record Hits(List<Long> postIds, long totalHits) {
+    }
+
+    private static final class Postings {
+        private long[] postIds = new long[4];
+        private int[] titleFrequencies = new int[4];
+        private int[] bodyFrequencies = new int[4];
+        private int size;
+
+        private void add(long postId, int titleFrequency, int bodyFrequency) {
+            if (size == postIds.length) {
+                postIds = Arrays.copyOf(postIds, size * 2);
+                titleFrequencies = Arrays.copyOf(titleFrequencies, size * 2);
+                bodyFrequencies = Arrays.copyOf(bodyFrequencies, size * 2);
+            }
+            postIds[size] = postId;
+            titleFrequencies[size] = titleFrequency;
+            bodyFrequencies[size] = bodyFrequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SearchProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.SearchPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class PostSearchService {
+    private static final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+    private static final String POSTS_SQL = "select p.id, p.title, p.preview, b.encoding, b.content from posts p " +
+            "left join post_bodies b on b.post_id = p.id";
+
+    private final PostSearchIndex postSearchIndex;
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties searchProperties;
+    private final ShardRouter shardRouter;
+    private final PostBodyCodec postBodyCodec;
+
+    @Autowired
+    public PostSearchService(PostSearchIndex postSearchIndex, PostRepository postRepository,
+                             JdbcTemplate jdbcTemplate, SearchProperties searchProperties,
+                             ShardRouter shardRouter, PostBodyCodec postBodyCodec) {
+        this.postSearchIndex = postSearchIndex;
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchProperties = searchProperties;
+        this.shardRouter = shardRouter;
+        this.postBodyCodec = postBodyCodec;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postSearchIndex.clear();
+        shardRouter.forEachShard(() -> jdbcTemplate.query(POSTS_SQL, rs -> {
+            String encoding = rs.getString(4);
+            String body = encoding == null ? rs.getString(3)
+                    : postBodyCodec.decode(PostBody.Encoding.valueOf(encoding), rs.getBytes(5));
+            postSearchIndex.index(rs.getLong(1), rs.getString(2), body);
+        }));
+        log.info("Indexed {} posts for search", postSearchIndex.size());
+    }
+
+    public void index(Post post) {
+        postSearchIndex.index(post.getId(), post.getTitle(), post.getBody());
+    }
+
+    @Transactional(readOnly = true)
+    public SearchPage<PostSummary> search(String query, Integer page, Integer size) {
+        int limit = searchProperties.resolvePageSize(size);
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        PostSearchIndex.Hits hits = postSearchIndex.search(query, pageNumber, limit);
+        if (hits.postIds().isEmpty()) {
+            return new SearchPage<>(List.of(), pageNumber, limit, hits.totalHits());
+        }
+
+        List<Long> ranked = hits.postIds();
+        List<PostSummary> posts = shardRouter.gatherByShard(ranked, shardRouter::shardOfPost,
+                        postRepository::findSummariesByIdIn, null, Integer.MAX_VALUE).stream()
+                .sorted(Comparator.comparingInt(post -> ranked.indexOf(post.id())))
+                .toList();
+        return new SearchPage<>(posts, pageNumber, limit, hits.totalHits());
+    }
+}
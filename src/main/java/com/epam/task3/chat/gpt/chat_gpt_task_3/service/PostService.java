@@ -1,27 +1,95 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostPageProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostDetail;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostBodyRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class PostService {
+    private static final Sort NEWEST_FIRST_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final Comparator<Post> NEWEST_FIRST =
+            Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed();
+    private static final Comparator<PostSummary> NEWEST_SUMMARY_FIRST =
+            Comparator.comparing(PostSummary::createdAt).thenComparing(PostSummary::id).reversed();
+    private static final String NEXT_IDS_SQL = "select nextval('posts_id_seq') from generate_series(1, ?)";
+    private static final String INSERT_SQL =
+            "insert into posts (id, title, preview, truncated, author_id, created_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BODY_SQL =
+            "insert into post_bodies (post_id, encoding, content) values (?, ?, ?)";
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final FeedService feedService;
+    private final PostSearchService postSearchService;
+    private final OutboxService outboxService;
+    private final LiveStreamService liveStreamService;
+    private final NotificationService notificationService;
+    private final PostPageProperties postPageProperties;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final PartitioningProperties partitioningProperties;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PostBodyRepository postBodyRepository;
+    private final PostBodyCodec postBodyCodec;
 
     @Autowired
-    public PostService(PostRepository postRepository, UserRepository userRepository) {
+    public PostService(PostRepository postRepository, UserRepository userRepository, FeedService feedService,
+                       PostSearchService postSearchService, OutboxService outboxService,
+                       LiveStreamService liveStreamService, NotificationService notificationService,
+                       PostPageProperties postPageProperties,
+                       ReadYourWritesTracker readYourWritesTracker,
+                       PartitioningProperties partitioningProperties, ShardRouter shardRouter,
+                       JdbcTemplate jdbcTemplate, PostBodyRepository postBodyRepository,
+                       PostBodyCodec postBodyCodec) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.feedService = feedService;
+        this.postSearchService = postSearchService;
+        this.outboxService = outboxService;
+        this.liveStreamService = liveStreamService;
+        this.notificationService = notificationService;
+        this.postPageProperties = postPageProperties;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.partitioningProperties = partitioningProperties;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postBodyRepository = postBodyRepository;
+        this.postBodyCodec = postBodyCodec;
     }
 
-    public Post createPost(Long userId, String title, String body) {
+    @Transactional
+    public Post createPost(@ShardKey Long userId, String title, String body) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -29,14 +97,174 @@ public class PostService {
         post.setTitle(title);
         post.setBody(body);
         post.setAuthor(user);
-        return postRepository.save(post);
+        postBodyCodec.applyPreview(post);
+        Post saved = postRepository.save(post);
+        storeBodies(List.of(saved));
+        outboxService.record(EventType.POST_CREATED, saved.getId(), createdPayload(saved));
+        published(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Writes a batch of new posts, whose authors must already be loaded, with one id query and one batched insert
+     * instead of a save per post. Used by {@link PostBatchWriter}; the posts get their ids and creation times set.
+     */
+    @Transactional
+    public List<Post> createPosts(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        assignIds(posts);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (Post post : posts) {
+            post.setCreatedAt(now);
+            postBodyCodec.applyPreview(post);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, posts, posts.size(), (ps, post) -> {
+            ps.setLong(1, post.getId());
+            ps.setString(2, post.getTitle());
+            ps.setString(3, post.getPreview());
+            ps.setBoolean(4, post.isTruncated());
+            ps.setLong(5, post.getAuthor().getId());
+            ps.setTimestamp(6, Timestamp.valueOf(post.getCreatedAt()));
+        });
+        storeBodies(posts);
+        List<OutboxService.Event> events = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            events.add(new OutboxService.Event(EventType.POST_CREATED, post.getId(), createdPayload(post)));
+        }
+        outboxService.recordAll(events);
+        published(posts);
+        return posts;
     }
 
-    public List<Post> getPostsByUser(Long userId) {
-        return postRepository.findAllByAuthorId(userId);
+    @Transactional(readOnly = true)
+    public PostDetail getPost(@ShardKey(ShardKey.Type.POST) Long postId) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new NotFoundException("Post not found"));
+        if (!post.isTruncated()) {
+            return PostDetail.of(post, post.getPreview());
+        }
+        String body = postBodyRepository.findById(postId)
+                .map(postBodyCodec::decode)
+                .orElseThrow(() -> new IllegalStateException("Body of post " + postId + " is missing"));
+        return PostDetail.of(post, body);
     }
 
+    @Transactional(readOnly = true)
+    public List<Post> getPostsByUser(@ShardKey Long userId) {
+        return readYourWritesTracker.readFor(userId, () -> postRepository.findAllByAuthorId(userId));
+    }
+
+    @Transactional(readOnly = true)
     public List<Post> getAllPosts() {
-        return postRepository.findAll();
+        return shardRouter.gather(() -> postRepository.findAll(NEWEST_FIRST_SORT), NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> getPosts(String cursor, Integer size) {
+        int limit = postPageProperties.resolvePageSize(size);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        PostCursor after = cursor == null ? null : PostCursor.decode(cursor);
+        List<PostSummary> posts = recentFirst(after, limit, since -> shardRouter.gather(() -> after == null
+                ? postRepository.findFirstPage(since, pageable)
+                : postRepository.findPageAfter(since, after.createdAt(), after.id(), pageable),
+                NEWEST_SUMMARY_FIRST, limit + 1));
+        return toPage(posts, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> getPostsByUser(@ShardKey Long userId, String cursor, Integer size) {
+        int limit = postPageProperties.resolvePageSize(size);
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        PostCursor after = cursor == null ? null : PostCursor.decode(cursor);
+        List<PostSummary> posts = readYourWritesTracker.readFor(userId, () -> recentFirst(after, limit, since -> after == null
+                ? postRepository.findFirstPageByAuthorId(userId, since, pageable)
+                : postRepository.findPageByAuthorIdAfter(userId, since, after.createdAt(), after.id(), pageable)));
+        return toPage(posts, limit);
+    }
+
+    // With sharding the id carries the author's shard; otherwise one query reserves the whole batch from the
+    // sequence behind the IDENTITY column.
+    private void assignIds(List<Post> posts) {
+        if (shardRouter.enabled()) {
+            for (Post post : posts) {
+                post.setId(shardRouter.snowflakeIds().nextId(shardRouter.shardOfUser(post.getAuthor().getId())));
+            }
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            posts.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void storeBodies(List<Post> posts) {
+        List<PostBody> bodies = posts.stream()
+                .filter(Post::isTruncated)
+                .map(post -> postBodyCodec.encode(post.getId(), post.getBody()))
+                .toList();
+        if (bodies.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BODY_SQL, bodies, bodies.size(), (ps, body) -> {
+            ps.setLong(1, body.getPostId());
+            ps.setString(2, body.getEncoding().name());
+            ps.setBytes(3, body.getContent());
+        });
+    }
+
+    // timelines and the search index only learn about posts that committed; the live stream and notifications
+    // defer their own work the same way
+    private void published(List<Post> posts) {
+        afterCommit(() -> posts.forEach(post -> {
+            feedService.fanOut(post);
+            postSearchService.index(post);
+        }));
+        for (Post post : posts) {
+            liveStreamService.publishPost(post);
+            notificationService.notifyFollowers(post);
+            readYourWritesTracker.recordWrite(post.getAuthor().getId());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Map<String, Object> createdPayload(Post post) {
+        return Map.of("postId", post.getId(), "authorId", post.getAuthor().getId(), "title", post.getTitle());
+    }
+
+    /**
+     * Runs a keyset query against the recent partitions first and only widens it to the full history
+     * when the window cannot fill the page (limit + 1 rows are needed to know whether there is a next page).
+     */
+    private List<PostSummary> recentFirst(PostCursor after, int limit,
+                                          Function<LocalDateTime, List<PostSummary>> query) {
+        LocalDateTime since = partitioningProperties.recentSince(
+                after == null ? LocalDateTime.now() : after.createdAt());
+        List<PostSummary> posts = query.apply(since);
+        if (posts.size() <= limit && !since.equals(PartitioningProperties.BEGINNING)) {
+            posts = query.apply(PartitioningProperties.BEGINNING);
+        }
+        return posts;
+    }
+
+    private CursorPage<PostSummary> toPage(List<PostSummary> posts, int limit) {
+        if (posts.size() <= limit) {
+            return new CursorPage<>(posts, null);
+        }
+        List<PostSummary> items = posts.subList(0, limit);
+        return new CursorPage<>(items, PostCursor.of(items.get(limit - 1)).encode());
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets keyed by (bucket, userId), implemented with the generic cell rate algorithm: each key
+ * stores only its theoretical arrival time, updated with a CAS. Keys live in a fixed open-addressed
+ * table, so memory is bounded and acquiring allocates nothing. A slot is claimed by a 64-bit hash of
+ * the key that carries the bucket in its low bits; the full user id is stored next to it and compared
+ * as well, so users whose hashes collide never share a bucket. A bucket whose arrival time has passed
+ * is full again and indistinguishable from a new one, which is what lets idle slots be reused by
+ * other keys. When every slot in a probe window is busy the request is admitted. Requests that carry
+ * no user id are keyed by {@link #clientKey(String)}, which never collides with a user id.
+ */
+@Component
+public class RateLimiter {
+    private static final int PROBES = 8;
+    private static final int MAX_BUCKETS = 64;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray owners;
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final List<String> names = new ArrayList<>();
+    private final long[] intervals;
+    private final long[] tolerances;
+    private final long origin = System.nanoTime();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties rateLimitProperties) {
+        int size = Integer.highestOneBit(Math.max(PROBES, rateLimitProperties.tableSize() - 1)) << 1;
+        this.keys = new AtomicLongArray(size);
+        this.owners = new AtomicLongArray(size);
+        this.arrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        Map<String, RateLimitProperties.Bucket> buckets = rateLimitProperties.buckets();
+        if (buckets.size() > MAX_BUCKETS) {
+            throw new IllegalArgumentException("At most " + MAX_BUCKETS + " rate limit buckets are supported");
+        }
+        this.intervals = new long[buckets.size()];
+        this.tolerances = new long[buckets.size()];
+        buckets.forEach((name, bucket) -> {
+            int index = names.size();
+            names.add(name);
+            intervals[index] = (long) (1_000_000_000L / bucket.permitsPerSecond());
+            tolerances[index] = intervals[index] * Math.max(1, bucket.burst());
+        });
+    }
+
+    public int bucketIndex(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown rate limit bucket: " + name);
+        }
+        return index;
+    }
+
+    public String bucketName(int index) {
+        return names.get(index);
+    }
+
+    public int bucketCount() {
+        return names.size();
+    }
+
+    /**
+     * Maps a caller without a user id, such as a principal name or remote address, to a negative key.
+     */
+    public static long clientKey(String client) {
+        return mix(client.hashCode()) | Long.MIN_VALUE;
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(int bucket, long userId) {
+        return tryAcquire(bucket, userId, System.nanoTime() - origin);
+    }
+
+    long tryAcquire(int bucket, long userId, long now) {
+        // bit 6 is always set, so no key is ever the 0 of an unused slot
+        long key = mix(userId) & -MAX_BUCKETS | MAX_BUCKETS | bucket;
+        long interval = intervals[bucket];
+        long tolerance = tolerances[bucket];
+        int slot = slotFor(key, userId, now);
+        if (slot < 0) {
+            return 0;
+        }
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivals.compareAndSet(slot, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int slotFor(long key, long userId, long now) {
+        int start = (int) mix(key) & mask;
+        while (true) {
+            int free = -1;
+            long freeKey = 0;
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (start + i) & mask;
+                long current = keys.get(slot);
+                if (current == key && owners.get(slot) == userId) {
+                    return slot;
+                }
+                if (free < 0 && (current == 0 || arrivals.get(slot) <= now)) {
+                    free = slot;
+                    freeKey = current;
+                }
+            }
+            if (free < 0) {
+                return -1;
+            }
+            if (keys.compareAndSet(free, freeKey, key)) {
+                owners.set(free, userId);
+                return free;
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
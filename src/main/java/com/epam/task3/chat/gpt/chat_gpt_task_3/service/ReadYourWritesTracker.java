@@ -0,0 +1,56 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.DataSourceRouting;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ReplicaProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers users who wrote recently so reads of their own data can skip the replicas until
+ * replication has had {@code datasource.replicas.read-your-writes-window} to catch up.
+ */
+@Component
+public class ReadYourWritesTracker {
+    private final ConcurrentMap<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long windowNanos;
+
+    @Autowired
+    public ReadYourWritesTracker(ReplicaProperties replicaProperties) {
+        this.enabled = replicaProperties.enabled();
+        this.windowNanos = replicaProperties.readYourWritesWindow().toNanos();
+    }
+
+    public void recordWrite(Long userId) {
+        if (enabled) {
+            lastWrites.put(userId, System.nanoTime());
+        }
+    }
+
+    public boolean hasRecentWrite(Long userId) {
+        Long writtenAt = lastWrites.get(userId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(userId, writtenAt);
+        return false;
+    }
+
+    public <T> T readFor(Long userId, Supplier<T> read) {
+        return hasRecentWrite(userId) ? DataSourceRouting.onPrimary(read) : read.get();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.read-your-writes-purge-ms:60000}")
+    public void purge() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
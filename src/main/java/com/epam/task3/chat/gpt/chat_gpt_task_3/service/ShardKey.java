@@ -0,0 +1,22 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the service method parameter that decides which shard the whole call, including its transaction, runs on.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+    Type value() default Type.USER;
+
+    enum Type {
+        /** A user id, placed on the hash ring. */
+        USER,
+        /** A post id, which carries the shard of its author. */
+        POST
+    }
+}
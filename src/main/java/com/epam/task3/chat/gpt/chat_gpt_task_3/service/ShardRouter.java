@@ -0,0 +1,242 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardContext;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardRing;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardingProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SnowflakeIds;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Maps user and post ids to shards and runs work on them. Users are placed on a {@link ShardRing}; posts (and their
+ * likes) live with their author, and post ids carry that shard in their {@link SnowflakeIds} bits. With sharding
+ * disabled every method runs its action directly, so callers can use one code path for both setups.
+ */
+@Component
+public class ShardRouter {
+    private final boolean enabled;
+    private final ShardRing ring;
+    private final SnowflakeIds snowflakeIds;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService gatherExecutor;
+
+    @Autowired
+    public ShardRouter(ShardingProperties shardingProperties, PlatformTransactionManager transactionManager,
+                       ObjectProvider<SnowflakeIds> snowflakeIds) {
+        this(shardingProperties, transactionManager, snowflakeIds.getIfAvailable());
+    }
+
+    ShardRouter(ShardingProperties shardingProperties, PlatformTransactionManager transactionManager,
+                SnowflakeIds snowflakeIds) {
+        this.enabled = shardingProperties.enabled();
+        if (!enabled) {
+            this.ring = new ShardRing(1, 1);
+            this.snowflakeIds = null;
+            this.readTransaction = null;
+            this.writeTransaction = null;
+            this.gatherExecutor = null;
+            return;
+        }
+        if (shardingProperties.shardCount() > SnowflakeIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + SnowflakeIds.MAX_SHARDS + " shards are supported");
+        }
+        this.ring = new ShardRing(shardingProperties.shardCount(), shardingProperties.virtualNodes());
+        this.snowflakeIds = snowflakeIds;
+        // a unit of work on another shard needs its own transaction: the caller's is pinned to its first connection
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.gatherExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-gather-", 0).factory());
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return ring.size();
+    }
+
+    public int shardOfUser(long userId) {
+        return ring.shardFor(userId);
+    }
+
+    public int shardOfPost(long postId) {
+        return enabled ? SnowflakeIds.shardOf(postId) : 0;
+    }
+
+    public SnowflakeIds snowflakeIds() {
+        return snowflakeIds;
+    }
+
+    public <T> T readOnShard(int shard, Supplier<T> action) {
+        return inTransaction(shard, readTransaction, action);
+    }
+
+    public <T> T writeOnShard(int shard, Supplier<T> action) {
+        return inTransaction(shard, writeTransaction, action);
+    }
+
+    /**
+     * Runs the action once per shard, without a transaction, for background jobs that sweep every shard.
+     */
+    public void forEachShard(Runnable action) {
+        if (!enabled) {
+            action.run();
+            return;
+        }
+        for (int shard = 0; shard < ring.size(); shard++) {
+            ShardContext.onShard(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs the query on every shard in parallel and merges the results. Each shard must return its rows sorted by
+     * {@code order}; the merge then yields the first {@code limit} rows overall. A {@code null} order concatenates.
+     */
+    public <T> List<T> gather(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        if (!enabled) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(ring.size());
+        for (int shard = 0; shard < ring.size(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> readOnShard(target, query), gatherExecutor));
+        }
+        return merge(join(futures), order, limit);
+    }
+
+    /**
+     * Splits the keys by shard, runs the query for each shard's keys in parallel and merges the results like
+     * {@link #gather(Supplier, Comparator, int)}.
+     */
+    public <K, T> List<T> gatherByShard(Collection<K> keys, ToIntFunction<K> shardOf, Function<List<K>, List<T>> query,
+                                        Comparator<? super T> order, int limit) {
+        if (!enabled) {
+            return query.apply(List.copyOf(keys));
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, List<K>> group : groupByShard(keys, shardOf).entrySet()) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> readOnShard(group.getKey(), () -> query.apply(group.getValue())), gatherExecutor));
+        }
+        return merge(join(futures), order, limit);
+    }
+
+    public <K> Map<Integer, List<K>> groupByShard(Collection<K> keys, ToIntFunction<K> shardOf) {
+        Map<Integer, List<K>> groups = new TreeMap<>();
+        for (K key : keys) {
+            groups.computeIfAbsent(enabled ? shardOf.applyAsInt(key) : 0, shard -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (gatherExecutor != null) {
+            gatherExecutor.shutdown();
+        }
+    }
+
+    private <T> T inTransaction(int shard, TransactionTemplate transaction, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Integer current = ShardContext.current();
+        if (current != null && current == shard) {
+            return action.get();
+        }
+        return ShardContext.onShard(shard, () -> transaction.execute(status -> action.get()));
+    }
+
+    private static <T> List<List<T>> join(List<CompletableFuture<List<T>>> futures) {
+        List<List<T>> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order, int limit) {
+        List<T> merged = new ArrayList<>();
+        if (order == null) {
+            for (List<T> rows : sorted) {
+                for (T row : rows) {
+                    if (merged.size() == limit) {
+                        return merged;
+                    }
+                    merged.add(row);
+                }
+            }
+            return merged;
+        }
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> order.compare(a.head, b.head));
+        for (List<T> rows : sorted) {
+            Iterator<T> iterator = rows.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor<>(iterator));
+            }
+        }
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor<T> {
+        private final Iterator<T> rows;
+        private T head;
+
+        private Cursor(Iterator<T> rows) {
+            this.rows = rows;
+            this.head = rows.next();
+        }
+
+        private boolean advance() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            head = rows.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes calls with a {@link ShardKey} parameter to the owning shard. It is ordered ahead of the transaction
+ * interceptor, so the shard is fixed before the transaction starts and its flush at commit goes to the same shard.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+    private final ObjectProvider<ShardRouter> shardRouterProvider;
+    private final ConcurrentMap<Method, KeyParameter> keyParameters = new ConcurrentHashMap<>();
+    private volatile ShardRouter shardRouter;
+
+    // the router is looked up on first use: it needs the transaction manager, which must not be created
+    // while aspects are still being collected
+    public ShardRoutingAspect(ObjectProvider<ShardRouter> shardRouterProvider) {
+        this.shardRouterProvider = shardRouterProvider;
+    }
+
+    @Around("execution(* com.epam.task3.chat.gpt.chat_gpt_task_3.service..*(.., @com.epam.task3.chat.gpt.chat_gpt_task_3.service.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        KeyParameter parameter = keyParameters.computeIfAbsent(method, ShardRoutingAspect::keyParameter);
+        Object key = joinPoint.getArgs()[parameter.index()];
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        ShardRouter router = shardRouter;
+        if (router == null) {
+            router = shardRouterProvider.getObject();
+            shardRouter = router;
+        }
+        long id = ((Number) key).longValue();
+        int shard = parameter.type() == ShardKey.Type.POST ? router.shardOfPost(id) : router.shardOfUser(id);
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.exit(previous);
+        }
+    }
+
+    private static KeyParameter keyParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    return new KeyParameter(i, shardKey.value());
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+
+    private record KeyParameter(int index, ShardKey.Type type) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TimelineStore {
+
+    void push(Long userId, Long postId);
+
+    void pushAll(Collection<Long> userIds, Long postId);
+
+    List<Long> read(Long userId, Long beforePostId, int limit);
+}
@@ -0,0 +1,156 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.TrendingProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.TrendingPost;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Like velocity per post, kept in memory. Every tracked post has a ring buffer of like counts per
+ * time bucket covering {@code bucketSize * bucketCount}; a periodic refresh scores each post by
+ * its bucket counts decayed exponentially with age and publishes the top K. Posts with no likes
+ * left in the window are dropped, and the coldest posts are evicted beyond {@code maxTrackedPosts}.
+ */
+@Service
+public class TrendingService {
+    private final TrendingProperties trendingProperties;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final double decayPerBucket;
+    private final ConcurrentMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private volatile List<TrendingPost> trending = List.of();
+
+    @Autowired
+    public TrendingService(TrendingProperties trendingProperties) {
+        this(trendingProperties, Clock.systemUTC());
+    }
+
+    TrendingService(TrendingProperties trendingProperties, Clock clock) {
+        this.trendingProperties = trendingProperties;
+        this.clock = clock;
+        this.bucketMillis = trendingProperties.bucketSize().toMillis();
+        this.decayPerBucket = Math.pow(0.5, (double) bucketMillis / trendingProperties.halfLife().toMillis());
+    }
+
+    public void recordLike(Long postId) {
+        windows.computeIfAbsent(postId, id -> new Window(trendingProperties.bucketCount()))
+                .add(currentBucket(), 1);
+    }
+
+    public void recordUnlike(Long postId) {
+        Window window = windows.get(postId);
+        if (window != null) {
+            window.add(currentBucket(), -1);
+        }
+    }
+
+    public List<TrendingPost> getTrending(Integer limit) {
+        List<TrendingPost> snapshot = trending;
+        return snapshot.subList(0, Math.min(trendingProperties.resolveLimit(limit), snapshot.size()));
+    }
+
+    public int trackedPosts() {
+        return windows.size();
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long bucket = currentBucket();
+        int topK = trendingProperties.topK();
+        PriorityQueue<TrendingPost> top = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(TrendingPost::score));
+        List<TrendingPost> scored = new ArrayList<>(windows.size());
+
+        for (Map.Entry<Long, Window> entry : windows.entrySet()) {
+            TrendingPost post = entry.getValue().score(entry.getKey(), bucket, decayPerBucket);
+            if (post.recentLikes() <= 0) {
+                windows.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            scored.add(post);
+            top.offer(post);
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+
+        int overflow = scored.size() - trendingProperties.maxTrackedPosts();
+        if (overflow > 0) {
+            scored.sort(Comparator.comparingDouble(TrendingPost::score));
+            for (int i = 0; i < overflow; i++) {
+                windows.remove(scored.get(i).postId());
+            }
+        }
+
+        List<TrendingPost> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(TrendingPost::score).reversed()
+                .thenComparing(TrendingPost::postId, Comparator.reverseOrder()));
+        trending = List.copyOf(ranked);
+    }
+
+    private long currentBucket() {
+        return clock.millis() / bucketMillis;
+    }
+
+    private static final class Window {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int[] counts;
+        private long headBucket;
+
+        private Window(int bucketCount) {
+            this.counts = new int[bucketCount];
+        }
+
+        private void add(long bucket, int delta) {
+            lock.lock();
+            try {
+                advance(bucket);
+                if (bucket > headBucket - counts.length) {
+                    counts[(int) (bucket % counts.length)] += delta;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private TrendingPost score(Long postId, long bucket, double decayPerBucket) {
+            lock.lock();
+            try {
+                advance(bucket);
+                long likes = 0;
+                double score = 0;
+                double weight = 1;
+                for (int age = 0; age < counts.length; age++) {
+                    int count = counts[(int) Math.floorMod(headBucket - age, (long) counts.length)];
+                    likes += count;
+                    score += count * weight;
+                    weight *= decayPerBucket;
+                }
+                return new TrendingPost(postId, likes, Math.max(score, 0));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void advance(long bucket) {
+            if (bucket <= headBucket) {
+                return;
+            }
+            long expired = Math.min(bucket - headBucket, counts.length);
+            for (long b = bucket - expired + 1; b <= bucket; b++) {
+                counts[(int) (b % counts.length)] = 0;
+            }
+            headBucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardContext;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.UserIndexProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of registered usernames and emails. Bloom filters answer "definitely not registered" without a
+ * query, which is what most availability checks and lookups of unknown names get. A bounded cache from username
+ * to user id lets lookups of recently seen names skip the scan over all shards. The filters are warmed from
+ * {@code users} at startup; until then every name is reported as possibly registered. Users registered through
+ * other nodes are picked up by polling {@code users} for new ids every {@code users.index.refresh-interval-ms}.
+ * Each poll rescans the ids of the one before it, so rows that commit out of id order, or carry a snowflake id
+ * from a node whose clock lags, are still found as long as they are less than one interval late.
+ */
+@Service
+public class UserLookupIndex {
+    private static final Logger log = LoggerFactory.getLogger(UserLookupIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final UserIndexProperties userIndexProperties;
+    private final Cache<String, Long> idsByUsername;
+    // per shard: the ids the next refresh starts after, and the highest id seen so far
+    private final ConcurrentMap<Integer, long[]> scanMarks = new ConcurrentHashMap<>();
+    private final Counter absent;
+    private final Counter cached;
+    private final Counter queried;
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    private volatile boolean loaded;
+
+    @Autowired
+    public UserLookupIndex(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                           UserIndexProperties userIndexProperties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.userIndexProperties = userIndexProperties;
+        this.idsByUsername = Caffeine.newBuilder().maximumSize(userIndexProperties.maxCachedNames()).build();
+        this.usernames = new BloomFilter(userIndexProperties.expectedUsers(), userIndexProperties.falsePositiveRate());
+        this.emails = new BloomFilter(userIndexProperties.expectedUsers(), userIndexProperties.falsePositiveRate());
+        this.absent = meterRegistry.counter("users.index.lookups", "result", "absent");
+        this.cached = meterRegistry.counter("users.index.lookups", "result", "cached");
+        this.queried = meterRegistry.counter("users.index.lookups", "result", "queried");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long[] count = new long[1];
+        shardRouter.forEachShard(() -> count[0] += jdbcTemplate.queryForObject("select count(*) from users", Long.class));
+        // leave room to grow before the false positive rate drifts above the configured one
+        long expected = Math.max(userIndexProperties.expectedUsers(), count[0] * 2);
+        // registrations during the scan add to the new filters, so none are lost when they are swapped in
+        loaded = false;
+        usernames = new BloomFilter(expected, userIndexProperties.falsePositiveRate());
+        emails = new BloomFilter(expected, userIndexProperties.falsePositiveRate());
+        shardRouter.forEachShard(() -> {
+            long[] highest = {Long.MIN_VALUE};
+            jdbcTemplate.query("select id, username, email from users", rs -> {
+                long id = rs.getLong(1);
+                highest[0] = Math.max(highest[0], id);
+                add(id, rs.getString(2), rs.getString(3));
+            });
+            scanMarks.put(currentShard(), new long[]{highest[0], highest[0]});
+        });
+        loaded = true;
+        log.info("Loaded user lookup index: {} users, {} bits per filter", count[0], usernames.bitSize());
+    }
+
+    @Scheduled(fixedDelayString = "${users.index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        shardRouter.forEachShard(() -> {
+            long[] marks = scanMarks.computeIfAbsent(currentShard(), shard -> new long[]{Long.MIN_VALUE, Long.MIN_VALUE});
+            long[] highest = {marks[1]};
+            jdbcTemplate.query("select id, username, email from users where id > ?", rs -> {
+                long id = rs.getLong(1);
+                highest[0] = Math.max(highest[0], id);
+                add(id, rs.getString(2), rs.getString(3));
+            }, marks[0]);
+            scanMarks.put(currentShard(), new long[]{marks[1], highest[0]});
+        });
+    }
+
+    public void add(User user) {
+        add(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    public void add(Long id, String username, String email) {
+        usernames.add(username);
+        emails.add(email);
+        idsByUsername.put(username, id);
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContain(usernames, username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emails, email);
+    }
+
+    /**
+     * Returns the id of a recently registered or looked-up user, or {@code null} when the database must be asked.
+     */
+    public Long cachedId(String username) {
+        Long id = idsByUsername.getIfPresent(username);
+        (id != null ? cached : queried).increment();
+        return id;
+    }
+
+    private boolean mightContain(BloomFilter filter, String value) {
+        if (!loaded || filter.mightContain(value)) {
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    long cachedNames() {
+        idsByUsername.cleanUp();
+        return idsByUsername.estimatedSize();
+    }
+
+    private static int currentShard() {
+        return Objects.requireNonNullElse(ShardContext.current(), 0);
+    }
+
+    /**
+     * Lock-free Bloom filter over strings. Bits are set with CAS, so concurrent adds never lose each other's bits;
+     * the k probe positions come from two 64-bit hashes combined as {@code h1 + i * h2}.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(long expected, double falsePositiveRate) {
+            long n = Math.max(1, expected);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        }
+
+        void add(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitSize() {
+            return bits;
+        }
+
+        // FNV-1a over the UTF-16 units, seeded, followed by the SplitMix64 finalizer to spread short keys
+        private static long hash(String value, long seed) {
+            long h = seed;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+            h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+            return h ^ (h >>> 31);
+        }
+    }
+}
@@ -1,40 +1,135 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.UserAlreadyExistsException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class UserService {
+    private static final int DIRECTORY_SHARD = 0;
+
     private final UserRepository userRepository;
+    private final FollowGraphService followGraphService;
+    private final OutboxService outboxService;
+    private final ShardRouter shardRouter;
+    private final UserLookupIndex userLookupIndex;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, FollowGraphService followGraphService,
+                       OutboxService outboxService, ShardRouter shardRouter, UserLookupIndex userLookupIndex) {
         this.userRepository = userRepository;
+        this.followGraphService = followGraphService;
+        this.outboxService = outboxService;
+        this.shardRouter = shardRouter;
+        this.userLookupIndex = userLookupIndex;
     }
 
     public User registerUser(String username, String email) {
+        if (!isUsernameAvailable(username)) {
+            throw new UserAlreadyExistsException("Username is already taken");
+        }
+        if (userLookupIndex.mightContainEmail(email) && emailRegistered(email)) {
+            throw new UserAlreadyExistsException("Email is already registered");
+        }
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
-        return userRepository.save(user);
+        try {
+            User saved = save(user);
+            userLookupIndex.add(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // lost a race with a concurrent registration of the same username or email
+            throw new UserAlreadyExistsException("Username or email is already registered");
+        }
+    }
+
+    private User save(User user) {
+        if (!shardRouter.enabled()) {
+            return userRepository.save(user);
+        }
+        // the shard follows from the id, so the id is assigned up front instead of by the insert
+        user.setId(shardRouter.snowflakeIds().nextId(0));
+        // the unique keys of users only hold within a shard; the directory on shard 0 holds every username and
+        // email, so of two registrations racing onto different shards only the first to claim its entry proceeds
+        shardRouter.writeOnShard(DIRECTORY_SHARD,
+                () -> userRepository.insertDirectoryEntry(user.getUsername(), user.getEmail(), user.getId()));
+        try {
+            shardRouter.writeOnShard(shardRouter.shardOfUser(user.getId()),
+                    () -> userRepository.insertWithId(user.getId(), user.getUsername(), user.getEmail()));
+        } catch (RuntimeException e) {
+            shardRouter.writeOnShard(DIRECTORY_SHARD,
+                    () -> userRepository.deleteDirectoryEntry(user.getUsername(), user.getId()));
+            throw e;
+        }
+        return user;
+    }
+
+    @Transactional
+    public void followUser(@ShardKey Long userId, Long targetUserId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        if (!shardRouter.readOnShard(shardRouter.shardOfUser(targetUserId),
+                () -> userRepository.existsById(targetUserId))) {
+            throw new RuntimeException("Target user not found");
+        }
+        if (userRepository.insertFollow(userId, targetUserId) > 0) {
+            outboxService.record(EventType.USER_FOLLOWED, userId, followPayload(userId, targetUserId));
+            followGraphService.recordFollow(userId, targetUserId);
+        }
     }
 
     @Transactional
-    public void followUser(Long userId, Long targetUserId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-        user.getFollowing().add(targetUser);
-        userRepository.save(user);
+    public void unfollowUser(@ShardKey Long userId, Long targetUserId) {
+        if (userRepository.deleteFollow(userId, targetUserId) > 0) {
+            outboxService.record(EventType.USER_UNFOLLOWED, userId, followPayload(userId, targetUserId));
+            followGraphService.recordUnfollow(userId, targetUserId);
+        }
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        if (!userLookupIndex.mightContainUsername(username)) {
+            return Optional.empty();
+        }
+        Long id = userLookupIndex.cachedId(username);
+        if (id != null) {
+            return shardRouter.readOnShard(shardRouter.shardOfUser(id), () -> userRepository.findById(id));
+        }
+        Optional<User> user = shardRouter.gather(() -> userRepository.findByUsername(username).stream().toList(),
+                        null, 1)
+                .stream()
+                .findFirst();
+        user.ifPresent(userLookupIndex::add);
+        return user;
+    }
+
+    /**
+     * Answered from the lookup index without a query for names that were never registered.
+     */
+    @Transactional(readOnly = true)
+    public boolean isUsernameAvailable(String username) {
+        return findUserByUsername(username).isEmpty();
+    }
+
+    private boolean emailRegistered(String email) {
+        return !shardRouter.gather(() -> userRepository.existsByEmail(email) ? List.of(email) : List.<String>of(),
+                null, 1).isEmpty();
+    }
+
+    private static Map<String, Long> followPayload(Long followerId, Long followingId) {
+        return Map.of("followerId", followerId, "followingId", followingId);
     }
 }
\ No newline at end of file
@@ -10,17 +10,30 @@ CREATE TABLE users (
 CREATE TABLE posts (
                        id SERIAL PRIMARY KEY,
                        title VARCHAR(255) NOT NULL,
-                       body TEXT NOT NULL,
+                       preview TEXT NOT NULL,
+                       truncated BOOLEAN NOT NULL DEFAULT FALSE,
                        author_id INTEGER NOT NULL,
                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                       like_count BIGINT NOT NULL DEFAULT 0,
                        FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
--- Create Like Table
+-- Create Post Body Table (full bodies of posts longer than posts.body.preview-length, compressed when that helps)
+CREATE TABLE post_bodies (
+                             post_id INTEGER PRIMARY KEY,
+                             encoding VARCHAR(16) NOT NULL,
+                             content BYTEA NOT NULL,
+                             FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE
+);
+
+-- Create Like Table (ids come from a pooled sequence so Hibernate can batch inserts)
+CREATE SEQUENCE likes_id_seq INCREMENT BY 50;
+
 CREATE TABLE likes (
-                       id SERIAL PRIMARY KEY,
+                       id BIGINT PRIMARY KEY DEFAULT nextval('likes_id_seq'),
                        user_id INTEGER NOT NULL,
                        post_id INTEGER NOT NULL,
+                       post_created_at TIMESTAMP,
                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
                        FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE,
@@ -36,3 +49,33 @@ CREATE TABLE user_following (
                                 FOREIGN KEY (follower_id) REFERENCES users (id) ON DELETE CASCADE,
                                 FOREIGN KEY (following_id) REFERENCES users (id) ON DELETE CASCADE
 );
+
+-- Create Outbox Table (domain events written in the same transaction as the change, relayed in id order)
+CREATE TABLE outbox_events (
+                               id BIGSERIAL PRIMARY KEY,
+                               aggregate_type VARCHAR(32) NOT NULL,
+                               aggregate_id BIGINT NOT NULL,
+                               event_type VARCHAR(32) NOT NULL,
+                               payload TEXT NOT NULL,
+                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create Notifications Table (one row per follower of a new post's author, written in batches by workers)
+CREATE TABLE notifications (
+                               id BIGSERIAL PRIMARY KEY,
+                               user_id BIGINT NOT NULL,
+                               post_id BIGINT NOT NULL,
+                               actor_id BIGINT NOT NULL,
+                               created_at TIMESTAMP NOT NULL,
+                               read_at TIMESTAMP
+);
+
+CREATE INDEX idx_notifications_user_id ON notifications (user_id, id DESC);
+CREATE INDEX idx_notifications_unread ON notifications (user_id) WHERE read_at IS NULL;
+
+-- Follower lookups by followed user, in follower id order, for chunked fan-out
+CREATE INDEX idx_user_following_following_follower ON user_following (following_id, follower_id);
+
+-- Keyset pagination indexes for post listings (created_at desc, id desc)
+CREATE INDEX idx_posts_created_at_id ON posts (created_at DESC, id DESC);
+CREATE INDEX idx_posts_author_created_at_id ON posts (author_id, created_at DESC, id DESC);
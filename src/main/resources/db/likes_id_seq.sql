@@ -0,0 +1,14 @@
+-- Switches likes.id (db.sql before bulk likes, where it was SERIAL) to the pooled sequence Like is mapped to.
+-- Run once before starting a version that allocates like ids in blocks of 50; db.sql, partitioning.sql and
+-- sharding.sql already create the sequence this way.
+--
+-- Hibernate's pooled optimizer treats each value it draws as the top of a block of 50 ids, so the sequence is moved
+-- 50 past the highest existing id to keep the first block clear of rows written before.
+
+BEGIN;
+
+ALTER TABLE likes ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE likes_id_seq AS BIGINT INCREMENT BY 50;
+SELECT setval('likes_id_seq', (SELECT coalesce(max(id), 0) FROM likes) + 50, false);
+
+COMMIT;
@@ -0,0 +1,81 @@
+-- Migrates posts and likes (db.sql) to monthly range partitions on post creation time.
+-- Run once, during a maintenance window, then start the application with partitioning.enabled=true
+-- so PartitionMaintenanceService keeps creating upcoming months and archiving expired ones.
+--
+-- likes are partitioned by the creation time of the liked post (post_created_at), not by their own
+-- created_at: a post and its likes live in partitions for the same month, can be archived together,
+-- and UNIQUE (user_id, post_id, post_created_at) stays equivalent to one like per user and post.
+-- Partitioned tables cannot be the target of the old likes -> posts foreign key; the application only
+-- inserts likes with INSERT ... SELECT FROM posts, so a like is never written for a missing post.
+-- post_bodies loses its foreign key for the same reason and stays unpartitioned: it is only read by post id.
+
+BEGIN;
+
+ALTER TABLE likes RENAME TO likes_unpartitioned;
+ALTER TABLE posts RENAME TO posts_unpartitioned;
+ALTER INDEX idx_posts_created_at_id RENAME TO idx_posts_unpartitioned_created_at_id;
+ALTER INDEX idx_posts_author_created_at_id RENAME TO idx_posts_unpartitioned_author_created_at_id;
+
+CREATE TABLE posts (
+                       id INTEGER NOT NULL DEFAULT nextval('posts_id_seq'),
+                       title VARCHAR(255) NOT NULL,
+                       preview TEXT NOT NULL,
+                       truncated BOOLEAN NOT NULL DEFAULT FALSE,
+                       author_id INTEGER NOT NULL,
+                       created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                       like_count BIGINT NOT NULL DEFAULT 0,
+                       PRIMARY KEY (id, created_at),
+                       FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE likes (
+                       id BIGINT NOT NULL DEFAULT nextval('likes_id_seq'),
+                       user_id INTEGER NOT NULL,
+                       post_id INTEGER NOT NULL,
+                       post_created_at TIMESTAMP NOT NULL,
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                       PRIMARY KEY (id, post_created_at),
+                       FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+                       UNIQUE (user_id, post_id, post_created_at)
+) PARTITION BY RANGE (post_created_at);
+
+-- One partition per month from the oldest post up to three months ahead (partitioning.premake-months)
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', coalesce((SELECT min(created_at) FROM posts_unpartitioned), now()));
+    last_month DATE := date_trunc('month', now() + interval '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE posts_p%s PARTITION OF posts FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYY_MM'), month_start, month_start + interval '1 month');
+        EXECUTE format('CREATE TABLE likes_p%s PARTITION OF likes FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYY_MM'), month_start, month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END $$;
+
+UPDATE posts_unpartitioned SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+INSERT INTO posts (id, title, preview, truncated, author_id, created_at, like_count)
+SELECT id, title, preview, truncated, author_id, created_at, like_count FROM posts_unpartitioned;
+
+INSERT INTO likes (id, user_id, post_id, post_created_at, created_at)
+SELECT l.id, l.user_id, l.post_id, p.created_at, l.created_at
+FROM likes_unpartitioned l
+JOIN posts p ON p.id = l.post_id;
+
+-- Keyset pagination indexes (created_at desc, id desc), created on every partition
+CREATE INDEX idx_posts_created_at_id ON posts (created_at DESC, id DESC);
+CREATE INDEX idx_posts_author_created_at_id ON posts (author_id, created_at DESC, id DESC);
+CREATE INDEX idx_posts_id ON posts (id);
+CREATE INDEX idx_likes_post_id ON likes (post_id);
+
+ALTER SEQUENCE posts_id_seq OWNED BY posts.id;
+ALTER SEQUENCE likes_id_seq OWNED BY likes.id;
+
+ALTER TABLE post_bodies DROP CONSTRAINT post_bodies_post_id_fkey;
+
+DROP TABLE likes_unpartitioned;
+DROP TABLE posts_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,28 @@
+-- Moves post bodies (db.sql before post previews) out of the posts table. Run once before starting a version
+-- that maps Post.preview; on a partitioned or sharded database the new schema files already include these columns.
+--
+-- posts keeps the first 280 characters (posts.body.preview-length) for listings. Longer bodies are copied to
+-- post_bodies as PLAIN UTF-8; new posts are stored DEFLATE-compressed when that makes them smaller, and both
+-- encodings are read back the same way.
+
+BEGIN;
+
+CREATE TABLE post_bodies (
+                             post_id INTEGER PRIMARY KEY,
+                             encoding VARCHAR(16) NOT NULL,
+                             content BYTEA NOT NULL,
+                             FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE
+);
+
+ALTER TABLE posts ADD COLUMN preview TEXT;
+ALTER TABLE posts ADD COLUMN truncated BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE posts SET preview = left(body, 280), truncated = char_length(body) > 280;
+
+INSERT INTO post_bodies (post_id, encoding, content)
+SELECT id, 'PLAIN', convert_to(body, 'UTF8') FROM posts WHERE truncated;
+
+ALTER TABLE posts ALTER COLUMN preview SET NOT NULL;
+ALTER TABLE posts DROP COLUMN body;
+
+COMMIT;
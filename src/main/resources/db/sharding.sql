@@ -0,0 +1,86 @@
+-- Schema for every shard when sharding.enabled=true (shard 0 is spring.datasource.url, the rest sharding.urls).
+-- Run it on each shard database instead of db.sql.
+--
+-- A user lives on the shard the consistent-hash ring picks for their id. Their posts, the likes on those posts,
+-- the users they follow and their notifications live on the same shard. Ids are snowflake ids assigned by the
+-- application (posts carry their shard in the id), so there are no SERIAL columns for users and posts. Columns
+-- that may point at a row on another shard (likes.user_id, user_following.following_id, notifications.actor_id)
+-- have no foreign key.
+--
+-- user_directory is only used on shard 0. It claims every username and email across all shards before the user row
+-- is written on its own shard, since the unique keys of users only hold within one shard.
+
+CREATE TABLE users (
+                       id BIGINT PRIMARY KEY,
+                       username VARCHAR(50) NOT NULL UNIQUE,
+                       email VARCHAR(100) NOT NULL UNIQUE,
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE user_directory (
+                                username VARCHAR(50) PRIMARY KEY,
+                                email VARCHAR(100) NOT NULL UNIQUE,
+                                user_id BIGINT NOT NULL
+);
+
+CREATE TABLE posts (
+                       id BIGINT PRIMARY KEY,
+                       title VARCHAR(255) NOT NULL,
+                       preview TEXT NOT NULL,
+                       truncated BOOLEAN NOT NULL DEFAULT FALSE,
+                       author_id BIGINT NOT NULL,
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                       like_count BIGINT NOT NULL DEFAULT 0,
+                       FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE post_bodies (
+                             post_id BIGINT PRIMARY KEY,
+                             encoding VARCHAR(16) NOT NULL,
+                             content BYTEA NOT NULL,
+                             FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE
+);
+
+CREATE SEQUENCE likes_id_seq INCREMENT BY 50;
+
+CREATE TABLE likes (
+                       id BIGINT PRIMARY KEY DEFAULT nextval('likes_id_seq'),
+                       user_id BIGINT NOT NULL,
+                       post_id BIGINT NOT NULL,
+                       post_created_at TIMESTAMP,
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                       FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE,
+                       UNIQUE (user_id, post_id)
+);
+
+CREATE TABLE user_following (
+                                follower_id BIGINT NOT NULL,
+                                following_id BIGINT NOT NULL,
+                                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                PRIMARY KEY (follower_id, following_id),
+                                FOREIGN KEY (follower_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE outbox_events (
+                               id BIGSERIAL PRIMARY KEY,
+                               aggregate_type VARCHAR(32) NOT NULL,
+                               aggregate_id BIGINT NOT NULL,
+                               event_type VARCHAR(32) NOT NULL,
+                               payload TEXT NOT NULL,
+                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE notifications (
+                               id BIGSERIAL PRIMARY KEY,
+                               user_id BIGINT NOT NULL,
+                               post_id BIGINT NOT NULL,
+                               actor_id BIGINT NOT NULL,
+                               created_at TIMESTAMP NOT NULL,
+                               read_at TIMESTAMP
+);
+
+CREATE INDEX idx_notifications_user_id ON notifications (user_id, id DESC);
+CREATE INDEX idx_notifications_unread ON notifications (user_id) WHERE read_at IS NULL;
+CREATE INDEX idx_user_following_following_follower ON user_following (following_id, follower_id);
+CREATE INDEX idx_posts_created_at_id ON posts (created_at DESC, id DESC);
+CREATE INDEX idx_posts_author_created_at_id ON posts (author_id, created_at DESC, id DESC);
@@ -0,0 +1,78 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler.LikeHandler;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler.PostHandler;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler.UserHandler;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import javax.sql.DataSource;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * WebFlux mapping of the {@code /api/users}, {@code /api/posts} and {@code /api/likes} contracts,
+ * served over R2DBC. Post listings are streamed item by item when the client accepts
+ * {@code application/x-ndjson}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfiguration {
+    private static final RequestPredicate NDJSON =
+            request -> request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+
+    /**
+     * Boot skips the JDBC DataSource once an R2DBC ConnectionFactory exists. The shared background
+     * services (counters, follow graph, search index, outbox relay) still run on JPA/JDBC, so it is
+     * registered explicitly.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Not exposed as a transaction manager bean, so the JPA one stays the only candidate for
+     * {@code @Transactional} in the shared services.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> apiRoutes(UserHandler userHandler, PostHandler postHandler,
+                                                    LikeHandler likeHandler) {
+        return route()
+                .path("/api/users", users -> users
+                        .POST("/register", userHandler::register)
+                        .POST("/{userId}/follow/{targetUserId}", userHandler::follow)
+                        .DELETE("/{userId}/follow/{targetUserId}", userHandler::unfollow))
+                .path("/api/posts", posts -> posts
+                        .POST("", postHandler::createPost)
+                        .GET("", NDJSON, postHandler::streamPosts)
+                        .GET("", postHandler::getPosts)
+                        .GET("/{id}", postHandler::getPost)
+                        .GET("/user/{userId}", NDJSON, postHandler::streamPostsByUser)
+                        .GET("/user/{userId}", postHandler::getPostsByUser))
+                .path("/api/likes", likes -> likes
+                        .POST("/bulk", likeHandler::applyBulk)
+                        .POST("/{userId}/like/{postId}", likeHandler::likePost)
+                        .DELETE("/{userId}/unlike/{postId}", likeHandler::unlikePost)
+                        .GET("/post/{postId}/count", likeHandler::getLikeCount)
+                        .GET("/{userId}/liked/{postId}", likeHandler::hasLiked))
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * R2DBC counterpart of {@code OutboxService}; must be subscribed inside the transaction that makes the change.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOutbox {
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveOutbox(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Void> record(EventType type, Long aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new IllegalArgumentException("Event payload is not serializable", e));
+        }
+        return databaseClient.sql("insert into outbox_events (aggregate_type, aggregate_id, event_type, payload, " +
+                        "created_at) values (:aggregateType, :aggregateId, :eventType, :payload, :createdAt)")
+                .bind("aggregateType", type.aggregateType())
+                .bind("aggregateId", aggregateId)
+                .bind("eventType", type.name())
+                .bind("payload", json)
+                .bind("createdAt", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .then();
+    }
+}
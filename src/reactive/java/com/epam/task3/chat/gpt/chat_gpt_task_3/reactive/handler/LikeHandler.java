@@ -0,0 +1,140 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.BulkLikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeOperation;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.ReactiveOutbox;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.PostRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.UserRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactiveLikeRepository;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactivePostRepository;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LikeHandler {
+    private final ReactiveLikeRepository likeRepository;
+    private final ReactiveUserRepository userRepository;
+    private final ReactivePostRepository postRepository;
+    private final ReactiveOutbox outbox;
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public LikeHandler(ReactiveLikeRepository likeRepository, ReactiveUserRepository userRepository,
+                       ReactivePostRepository postRepository, ReactiveOutbox outbox,
+                       TransactionalOperator transactionalOperator) {
+        this.likeRepository = likeRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.outbox = outbox;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<ServerResponse> likePost(ServerRequest request) {
+        Long userId = Params.pathLong(request, "userId");
+        Long postId = Params.pathLong(request, "postId");
+        return like(userId, postId)
+                .onErrorMap(DataIntegrityViolationException.class, e -> new NotFoundException("User or post not found"))
+                .as(transactionalOperator::transactional)
+                .flatMap(result -> ServerResponse.ok().bodyValue(
+                        result == LikeResult.LIKED ? "Post liked successfully" : "Post already liked"));
+    }
+
+    public Mono<ServerResponse> unlikePost(ServerRequest request) {
+        Long userId = Params.pathLong(request, "userId");
+        Long postId = Params.pathLong(request, "postId");
+        return unlike(userId, postId)
+                .as(transactionalOperator::transactional)
+                .flatMap(result -> ServerResponse.ok().bodyValue(
+                        result == LikeResult.UNLIKED ? "Post unliked successfully" : "Post was not liked"));
+    }
+
+    /**
+     * Same semantics as the servlet bulk endpoint: the last operation per (user, post) pair wins,
+     * unknown users or posts are reported instead of failing the batch.
+     */
+    public Mono<ServerResponse> applyBulk(ServerRequest request) {
+        Mono<List<BulkLikeResult>> results = request.bodyToMono(new ParameterizedTypeReference<List<LikeOperation>>() {})
+                .flatMap(operations -> {
+                    Map<List<Long>, Integer> latest = new LinkedHashMap<>();
+                    for (int i = 0; i < operations.size(); i++) {
+                        latest.put(List.of(operations.get(i).userId(), operations.get(i).postId()), i);
+                    }
+                    Set<Long> userIds = operations.stream().map(LikeOperation::userId).collect(Collectors.toSet());
+                    Set<Long> postIds = operations.stream().map(LikeOperation::postId).collect(Collectors.toSet());
+                    return Mono.zip(userRepository.findAllById(userIds).map(UserRow::id).collect(Collectors.toSet()),
+                                    postRepository.findAllById(postIds).map(PostRow::id).collect(Collectors.toSet()))
+                            .flatMap(existing -> Flux.range(0, operations.size())
+                                    .concatMap(i -> {
+                                        LikeOperation operation = operations.get(i);
+                                        if (latest.get(List.of(operation.userId(), operation.postId())) != i) {
+                                            return Mono.just(LikeResult.SUPERSEDED);
+                                        }
+                                        if (!existing.getT1().contains(operation.userId())
+                                                || !existing.getT2().contains(operation.postId())) {
+                                            return Mono.just(LikeResult.NOT_FOUND);
+                                        }
+                                        return operation.op() == LikeOperation.Type.LIKE
+                                                ? like(operation.userId(), operation.postId())
+                                                : unlike(operation.userId(), operation.postId());
+                                    })
+                                    .index((i, result) -> {
+                                        LikeOperation operation = operations.get(i.intValue());
+                                        return new BulkLikeResult(operation.userId(), operation.postId(),
+                                                operation.op(), result);
+                                    })
+                                    .collectList());
+                })
+                .as(transactionalOperator::transactional);
+        return results.flatMap(report -> ServerResponse.ok().bodyValue(report));
+    }
+
+    public Mono<ServerResponse> getLikeCount(ServerRequest request) {
+        return postRepository.findLikeCount(Params.pathLong(request, "postId"))
+                .defaultIfEmpty(0L)
+                .flatMap(count -> ServerResponse.ok().bodyValue(count));
+    }
+
+    public Mono<ServerResponse> hasLiked(ServerRequest request) {
+        return likeRepository.existsByUserIdAndPostId(Params.pathLong(request, "userId"), Params.pathLong(request, "postId"))
+                .flatMap(liked -> ServerResponse.ok().bodyValue(liked));
+    }
+
+    private Mono<LikeResult> like(Long userId, Long postId) {
+        return likeRepository.insertIfAbsent(userId, postId)
+                .flatMap(inserted -> inserted == 0 ? Mono.just(LikeResult.ALREADY_LIKED)
+                        : postRepository.addToLikeCount(postId, 1)
+                        .then(outbox.record(EventType.POST_LIKED, postId, likePayload(userId, postId)))
+                        .thenReturn(LikeResult.LIKED));
+    }
+
+    private Mono<LikeResult> unlike(Long userId, Long postId) {
+        return likeRepository.deleteByUserIdAndPostId(userId, postId)
+                .flatMap(deleted -> deleted == 0 ? Mono.just(LikeResult.NOT_LIKED)
+                        : postRepository.addToLikeCount(postId, -1)
+                        .then(outbox.record(EventType.POST_UNLIKED, postId, likePayload(userId, postId)))
+                        .thenReturn(LikeResult.UNLIKED));
+    }
+
+    private static Map<String, Long> likePayload(Long userId, Long postId) {
+        return Map.of("userId", userId, "postId", postId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+final class Params {
+
+    private Params() {
+    }
+
+    static Long pathLong(ServerRequest request, String name) {
+        try {
+            return Long.valueOf(request.pathVariable(name));
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid path variable '" + name + "'");
+        }
+    }
+
+    static String required(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required parameter '" + name + "' is not present"));
+    }
+
+    static Long requiredLong(ServerRequest request, String name) {
+        try {
+            return Long.valueOf(required(request, name));
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid parameter '" + name + "'");
+        }
+    }
+
+    static Integer optionalInt(ServerRequest request, String name) {
+        try {
+            return request.queryParam(name).map(Integer::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid parameter '" + name + "'");
+        }
+    }
+}
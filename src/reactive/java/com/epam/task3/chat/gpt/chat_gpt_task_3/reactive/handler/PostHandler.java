@@ -0,0 +1,150 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostPageProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostDetail;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.ReactiveOutbox;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.PostRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactivePostRepository;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactiveUserRepository;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostBodyCodec;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PostHandler {
+    private final ReactivePostRepository postRepository;
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveOutbox outbox;
+    private final TransactionalOperator transactionalOperator;
+    private final PostPageProperties postPageProperties;
+    private final PostBodyCodec postBodyCodec;
+
+    @Autowired
+    public PostHandler(ReactivePostRepository postRepository, ReactiveUserRepository userRepository,
+                       ReactiveOutbox outbox, TransactionalOperator transactionalOperator,
+                       PostPageProperties postPageProperties, PostBodyCodec postBodyCodec) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.outbox = outbox;
+        this.transactionalOperator = transactionalOperator;
+        this.postPageProperties = postPageProperties;
+        this.postBodyCodec = postBodyCodec;
+    }
+
+    public Mono<ServerResponse> createPost(ServerRequest request) {
+        Long userId = Params.requiredLong(request, "userId");
+        String title = Params.required(request, "title");
+        String body = Params.required(request, "body");
+        String preview = postBodyCodec.preview(body);
+        boolean truncated = preview.length() < body.length();
+        Mono<PostSummary> created = userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                .flatMap(author -> postRepository.save(new PostRow(null, title, preview, truncated, author.id(),
+                                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), 0))
+                        .flatMap(post -> truncated ? storeBody(post.id(), body).thenReturn(post) : Mono.just(post))
+                        .map(post -> new PostSummary(post.id(), post.title(), post.preview(), post.truncated(),
+                                author.id(), author.username(), post.likeCount(), post.createdAt())))
+                .flatMap(post -> outbox.record(EventType.POST_CREATED, post.id(),
+                                Map.of("postId", post.id(), "authorId", userId, "title", title))
+                        .thenReturn(post));
+        return created.as(transactionalOperator::transactional)
+                .flatMap(post -> ServerResponse.status(HttpStatus.CREATED).bodyValue(post));
+    }
+
+    public Mono<ServerResponse> getPost(ServerRequest request) {
+        Long postId = Params.pathLong(request, "id");
+        return postRepository.findById(postId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Post not found")))
+                .flatMap(post -> Mono.zip(userRepository.findById(post.authorId()), body(post))
+                        .map(found -> new PostDetail(post.id(), post.title(), found.getT2(), found.getT1().id(),
+                                found.getT1().username(), post.likeCount(), post.createdAt())))
+                .flatMap(post -> ServerResponse.ok().bodyValue(post));
+    }
+
+    public Mono<ServerResponse> getPosts(ServerRequest request) {
+        int limit = postPageProperties.resolvePageSize(Params.optionalInt(request, "size"));
+        return page(findPosts(request, limit + 1), limit);
+    }
+
+    public Mono<ServerResponse> streamPosts(ServerRequest request) {
+        int limit = postPageProperties.resolvePageSize(Params.optionalInt(request, "size"));
+        return stream(findPosts(request, limit));
+    }
+
+    public Mono<ServerResponse> getPostsByUser(ServerRequest request) {
+        int limit = postPageProperties.resolvePageSize(Params.optionalInt(request, "size"));
+        return page(findPostsByUser(request, limit + 1), limit);
+    }
+
+    public Mono<ServerResponse> streamPostsByUser(ServerRequest request) {
+        int limit = postPageProperties.resolvePageSize(Params.optionalInt(request, "size"));
+        return stream(findPostsByUser(request, limit));
+    }
+
+    private Flux<PostSummary> findPosts(ServerRequest request, int limit) {
+        return request.queryParam("cursor")
+                .map(PostCursor::decode)
+                .map(after -> postRepository.findPageAfter(after.createdAt(), after.id(), limit))
+                .orElseGet(() -> postRepository.findFirstPage(limit));
+    }
+
+    private Flux<PostSummary> findPostsByUser(ServerRequest request, int limit) {
+        Long userId = Params.pathLong(request, "userId");
+        return request.queryParam("cursor")
+                .map(PostCursor::decode)
+                .map(after -> postRepository.findPageByAuthorIdAfter(userId, after.createdAt(), after.id(), limit))
+                .orElseGet(() -> postRepository.findFirstPageByAuthorId(userId, limit));
+    }
+
+    private Mono<Integer> storeBody(Long postId, String body) {
+        PostBody encoded = postBodyCodec.encode(postId, body);
+        return postRepository.insertBody(postId, encoded.getEncoding().name(), encoded.getContent());
+    }
+
+    private Mono<String> body(PostRow post) {
+        if (!post.truncated()) {
+            return Mono.just(post.preview());
+        }
+        return postRepository.findBody(post.id())
+                .map(row -> postBodyCodec.decode(PostBody.Encoding.valueOf(row.encoding()), row.content()))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Body of post " + post.id() + " is missing")));
+    }
+
+    private static Mono<ServerResponse> page(Flux<PostSummary> posts, int limit) {
+        return posts.collectList()
+                .map(items -> toPage(items, limit))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page));
+    }
+
+    private static Mono<ServerResponse> stream(Flux<PostSummary> posts) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(posts, PostSummary.class);
+    }
+
+    private static CursorPage<PostSummary> toPage(List<PostSummary> posts, int limit) {
+        if (posts.size() <= limit) {
+            return new CursorPage<>(posts, null);
+        }
+        List<PostSummary> items = posts.subList(0, limit);
+        return new CursorPage<>(items, PostCursor.of(items.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,79 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.handler;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.UserSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.UserAlreadyExistsException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.ReactiveOutbox;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.UserRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo.ReactiveUserRepository;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.UserLookupIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UserHandler {
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveOutbox outbox;
+    private final TransactionalOperator transactionalOperator;
+    private final UserLookupIndex userLookupIndex;
+
+    @Autowired
+    public UserHandler(ReactiveUserRepository userRepository, ReactiveOutbox outbox,
+                       TransactionalOperator transactionalOperator, UserLookupIndex userLookupIndex) {
+        this.userRepository = userRepository;
+        this.outbox = outbox;
+        this.transactionalOperator = transactionalOperator;
+        this.userLookupIndex = userLookupIndex;
+    }
+
+    public Mono<ServerResponse> register(ServerRequest request) {
+        UserRow user = new UserRow(null, Params.required(request, "username"), Params.required(request, "email"));
+        return userRepository.save(user)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new UserAlreadyExistsException("Username or email is already registered"))
+                .doOnNext(saved -> userLookupIndex.add(saved.id(), saved.username(), saved.email()))
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                        .bodyValue(new UserSummary(saved.id(), saved.username(), saved.email())));
+    }
+
+    public Mono<ServerResponse> follow(ServerRequest request) {
+        Long userId = Params.pathLong(request, "userId");
+        Long targetUserId = Params.pathLong(request, "targetUserId");
+        Mono<Void> follow = requireExists(userId, "User not found")
+                .then(requireExists(targetUserId, "Target user not found"))
+                .then(userRepository.insertFollow(userId, targetUserId))
+                .flatMap(inserted -> inserted == 0 ? Mono.empty()
+                        : outbox.record(EventType.USER_FOLLOWED, userId, followPayload(userId, targetUserId)));
+        return follow.as(transactionalOperator::transactional)
+                .then(ServerResponse.ok().bodyValue("User followed successfully"));
+    }
+
+    public Mono<ServerResponse> unfollow(ServerRequest request) {
+        Long userId = Params.pathLong(request, "userId");
+        Long targetUserId = Params.pathLong(request, "targetUserId");
+        Mono<Void> unfollow = userRepository.deleteFollow(userId, targetUserId)
+                .flatMap(deleted -> deleted == 0 ? Mono.empty()
+                        : outbox.record(EventType.USER_UNFOLLOWED, userId, followPayload(userId, targetUserId)));
+        return unfollow.as(transactionalOperator::transactional)
+                .then(ServerResponse.ok().bodyValue("User unfollowed successfully"));
+    }
+
+    private Mono<Void> requireExists(Long userId, String message) {
+        return userRepository.existsById(userId)
+                .flatMap(exists -> exists ? Mono.empty() : Mono.error(new RuntimeException(message)));
+    }
+
+    private static Map<String, Long> followPayload(Long followerId, Long followingId) {
+        return Map.of("followerId", followerId, "followingId", followingId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("likes")
+public record LikeRow(@Id Long id, Long userId, Long postId) {
+}
@@ -0,0 +1,4 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model;
+
+public record PostBodyRow(Long postId, String encoding, byte[] content) {
+}
@@ -0,0 +1,11 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("posts")
+public record PostRow(@Id Long id, String title, String preview, boolean truncated, Long authorId,
+                      LocalDateTime createdAt, long likeCount) {
+}
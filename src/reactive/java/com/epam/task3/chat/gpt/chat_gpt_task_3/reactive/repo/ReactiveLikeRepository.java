@@ -0,0 +1,23 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.LikeRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveLikeRepository extends R2dbcRepository<LikeRow, Long> {
+    Mono<Boolean> existsByUserIdAndPostId(Long userId, Long postId);
+
+    @Modifying
+    @Query("insert into likes (id, user_id, post_id, post_created_at) " +
+            "select nextval('likes_id_seq'), :userId, p.id, p.created_at from posts p where p.id = :postId " +
+            "on conflict (user_id, post_id) do nothing")
+    Mono<Integer> insertIfAbsent(Long userId, Long postId);
+
+    @Modifying
+    @Query("delete from likes where user_id = :userId and post_id = :postId")
+    Mono<Integer> deleteByUserIdAndPostId(Long userId, Long postId);
+}
@@ -0,0 +1,48 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.PostBodyRow;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.PostRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReactivePostRepository extends R2dbcRepository<PostRow, Long> {
+    String SELECT_SUMMARY = "select p.id, p.title, p.preview, p.truncated, a.id as author_id, a.username as author_username, " +
+            "p.like_count, p.created_at from posts p join users a on a.id = p.author_id ";
+
+    @Query(SELECT_SUMMARY + "order by p.created_at desc, p.id desc limit :limit")
+    Flux<PostSummary> findFirstPage(int limit);
+
+    @Query(SELECT_SUMMARY + "where p.created_at < :createdAt or (p.created_at = :createdAt and p.id < :id) " +
+            "order by p.created_at desc, p.id desc limit :limit")
+    Flux<PostSummary> findPageAfter(LocalDateTime createdAt, Long id, int limit);
+
+    @Query(SELECT_SUMMARY + "where a.id = :authorId order by p.created_at desc, p.id desc limit :limit")
+    Flux<PostSummary> findFirstPageByAuthorId(Long authorId, int limit);
+
+    @Query(SELECT_SUMMARY + "where a.id = :authorId " +
+            "and (p.created_at < :createdAt or (p.created_at = :createdAt and p.id < :id)) " +
+            "order by p.created_at desc, p.id desc limit :limit")
+    Flux<PostSummary> findPageByAuthorIdAfter(Long authorId, LocalDateTime createdAt, Long id, int limit);
+
+    @Query("select post_id, encoding, content from post_bodies where post_id = :postId")
+    Mono<PostBodyRow> findBody(Long postId);
+
+    @Modifying
+    @Query("insert into post_bodies (post_id, encoding, content) values (:postId, :encoding, :content)")
+    Mono<Integer> insertBody(Long postId, String encoding, byte[] content);
+
+    @Query("select like_count from posts where id = :postId")
+    Mono<Long> findLikeCount(Long postId);
+
+    @Modifying
+    @Query("update posts set like_count = like_count + :delta where id = :postId")
+    Mono<Integer> addToLikeCount(Long postId, long delta);
+}
@@ -0,0 +1,22 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.repo;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.reactive.model.UserRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+    Mono<UserRow> findByUsername(String username);
+
+    @Modifying
+    @Query("insert into user_following (follower_id, following_id) values (:followerId, :followingId) " +
+            "on conflict (follower_id, following_id) do nothing")
+    Mono<Integer> insertFollow(Long followerId, Long followingId);
+
+    @Modifying
+    @Query("delete from user_following where follower_id = :followerId and following_id = :followingId")
+    Mono<Integer> deleteFollow(Long followerId, Long followingId);
+}
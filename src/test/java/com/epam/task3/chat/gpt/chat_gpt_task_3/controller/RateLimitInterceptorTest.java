@@ -0,0 +1,63 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.controller;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.RateLimitProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.AdmissionController;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.service.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionController admissionController = mock(AdmissionController.class);
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(true, 16,
+                Map.of("posts", new RateLimitProperties.Bucket(0.001, 1)),
+                Duration.ofMillis(100), Duration.ofSeconds(1), 0.05));
+        interceptor = new RateLimitInterceptor(rateLimiter, admissionController, meterRegistry);
+        handler = new HandlerMethod(new Posts(), Posts.class.getMethod("create"));
+        when(admissionController.admit()).thenReturn(true);
+    }
+
+    @Test
+    void preHandle_ShouldChargeAsyncRequestOnce() throws Exception {
+        MockHttpServletRequest request = post();
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        verify(admissionController, times(1)).admit();
+
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(post(), next, handler));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), next.getStatus());
+    }
+
+    private static MockHttpServletRequest post() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts");
+        request.setParameter("userId", "1");
+        return request;
+    }
+
+    static class Posts {
+        @RateLimited("posts")
+        public void create() {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.RateLimitProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        admissionController = new AdmissionController(meterRegistry, new RateLimitProperties(true, 16, Map.of(),
+                Duration.ofMillis(100), Duration.ofSeconds(1), 0.1));
+    }
+
+    @Test
+    void adjust_ShouldHalveAdmissionWhileOverloadedAndRecoverAfterwards() {
+        admissionController.adjust(500, 10);
+        assertEquals(0.5, admissionController.admitRatio(), 1e-9);
+
+        admissionController.adjust(5, 3000);
+        assertEquals(0.25, admissionController.admitRatio(), 1e-9);
+
+        admissionController.adjust(5, 10);
+        assertEquals(0.35, admissionController.admitRatio(), 1e-9);
+    }
+
+    @Test
+    void adjust_ShouldNotShedBelowMinimumRatio() {
+        for (int i = 0; i < 10; i++) {
+            admissionController.adjust(500, 10);
+        }
+
+        assertEquals(0.1, admissionController.admitRatio(), 1e-9);
+    }
+
+    @Test
+    void admit_ShouldAlwaysAdmitWhenHealthy() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(admissionController.admit());
+        }
+    }
+
+    @Test
+    void sample_ShouldUseMeanPoolWaitSinceLastSample() {
+        Timer acquire = meterRegistry.timer("hikaricp.connections.acquire", "pool", "primary");
+        acquire.record(Duration.ofSeconds(10));
+        admissionController.sample();
+        assertEquals(0.5, admissionController.admitRatio(), 1e-9);
+
+        acquire.record(Duration.ofMillis(1));
+        admissionController.sample();
+        assertEquals(0.6, admissionController.admitRatio(), 1e-9);
+        assertEquals(0.6, meterRegistry.get("rate.limit.admit.ratio").gauge().value(), 1e-9);
+    }
+}
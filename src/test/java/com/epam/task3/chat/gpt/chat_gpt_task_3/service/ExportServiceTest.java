@@ -0,0 +1,132 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ExportProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostBodyProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final PostBodyCodec postBodyCodec = new PostBodyCodec(new PostBodyProperties(280, 6));
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                objectMapper, new ExportProperties(100, 2, Duration.ofHours(1)), ShardRouterTest.unsharded(), postBodyCodec);
+
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L);
+        when(resultSet.getString(2)).thenReturn("First", "Second", "Third");
+        when(resultSet.getString(3)).thenReturn("a", "b", "c");
+        when(resultSet.getTimestamp(4)).thenReturn(Timestamp.valueOf(CREATED));
+        when(resultSet.getLong(5)).thenReturn(7L);
+        when(resultSet.getLong(6)).thenReturn(42L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void exportPosts_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportPosts(out, null, true, true);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"title\":\"First\",\"body\":\"a\",\"createdAt\":\"2024-05-01T12:00:00\","
+                + "\"authorId\":7,\"likeCount\":42}", lines[0]);
+        verify(jdbcTemplate).query(eq("select p.id, p.title, p.preview, p.created_at, p.author_id, p.like_count, "
+                + "b.encoding, b.content from posts p left join post_bodies b on b.post_id = p.id order by p.id"),
+                any(RowCallbackHandler.class), eq(new Object[0]));
+    }
+
+    @Test
+    void exportPosts_ShouldExportFullBody_WhenItIsStoredSeparately() throws IOException, SQLException {
+        String body = "long body ".repeat(100);
+        PostBody stored = postBodyCodec.encode(1L, body);
+        when(resultSet.getString(7)).thenReturn(stored.getEncoding().name(), null, null);
+        when(resultSet.getBytes(8)).thenReturn(stored.getContent());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPosts(out, null, false, false);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[0].contains("\"body\":\"" + body + "\""));
+        assertEquals(3, lines.length);
+    }
+
+    @Test
+    void exportPosts_ShouldOmitOptionalFieldsAndFilterByUpdatedSince() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPosts(out, CREATED, false, false);
+
+        String firstLine = out.toString(StandardCharsets.UTF_8).split("\n")[0];
+        assertEquals("{\"id\":1,\"title\":\"First\",\"body\":\"a\",\"createdAt\":\"2024-05-01T12:00:00\"}", firstLine);
+        verify(jdbcTemplate).query(contains("where p.created_at >= ?"), any(RowCallbackHandler.class),
+                eq(new Object[]{Timestamp.valueOf(CREATED)}));
+    }
+
+    @Test
+    void exportPosts_ShouldFlushIncrementally() throws IOException {
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        exportService.exportPosts(out, null, false, false);
+
+        // every second row plus the final flush
+        verify(out, times(2)).flush();
+    }
+
+    @Test
+    void exportLikes_ShouldWriteLikeRows() throws Exception {
+        when(resultSet.getLong(2)).thenReturn(10L);
+        when(resultSet.getLong(3)).thenReturn(20L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.exportLikes(out, null);
+
+        assertEquals(3, written);
+        assertEquals("{\"id\":1,\"userId\":10,\"postId\":20,\"createdAt\":\"2024-05-01T12:00:00\"}",
+                out.toString(StandardCharsets.UTF_8).split("\n")[0]);
+    }
+}
@@ -0,0 +1,168 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.FeedProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FeedServiceTest {
+
+    @Mock
+    private FollowGraphService followGraphService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    private TimelineStore timelineStore;
+    private FeedService feedService;
+
+    private User author;
+    private Post post1;
+    private Post post2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(followGraphService.followingOf(anyLong())).thenReturn(new long[0]);
+
+        FeedProperties feedProperties = new FeedProperties(3, 2, 20, 100);
+        timelineStore = new InMemoryTimelineStore(feedProperties);
+        feedService = new FeedService(timelineStore, followGraphService, postRepository, feedProperties,
+                ShardRouterTest.unsharded());
+
+        author = new User();
+        author.setId(1L);
+
+        post1 = new Post();
+        post1.setId(10L);
+        post1.setAuthor(author);
+
+        post2 = new Post();
+        post2.setId(11L);
+        post2.setAuthor(author);
+    }
+
+    @Test
+    void fanOut_ShouldPushPostToAuthorAndFollowers() {
+        when(followGraphService.followersOf(author.getId())).thenReturn(new long[]{2L, 3L});
+
+        feedService.fanOut(post1);
+
+        assertEquals(List.of(10L), timelineStore.read(1L, null, 10));
+        assertEquals(List.of(10L), timelineStore.read(2L, null, 10));
+        assertEquals(List.of(10L), timelineStore.read(3L, null, 10));
+    }
+
+    @Test
+    void fanOut_ShouldSkipFollowers_WhenAuthorIsCelebrity() {
+        when(followGraphService.followersOf(author.getId())).thenReturn(new long[]{2L, 3L, 4L});
+        when(followGraphService.followerCount(author.getId())).thenReturn(3);
+
+        feedService.fanOut(post1);
+
+        assertEquals(List.of(10L), timelineStore.read(1L, null, 10));
+        assertTrue(timelineStore.read(2L, null, 10).isEmpty());
+    }
+
+    @Test
+    void getFeed_ShouldReturnTimelinePostsNewestFirst() {
+        when(followGraphService.followersOf(author.getId())).thenReturn(new long[]{2L});
+        when(postRepository.findSummariesByIdIn(List.of(11L, 10L)))
+                .thenReturn(List.of(PostSummary.from(post1), PostSummary.from(post2)));
+
+        feedService.fanOut(post1);
+        feedService.fanOut(post2);
+        List<PostSummary> feed = feedService.getFeed(2L, null, 2);
+
+        assertEquals(List.of(11L, 10L), feed.stream().map(PostSummary::id).toList());
+        verify(postRepository, never()).findIdsByAuthors(anyCollection(), anyLong(), any());
+    }
+
+    @Test
+    void getFeed_ShouldMergeCelebrityPostsOnRead() {
+        when(followGraphService.followersOf(author.getId())).thenReturn(new long[]{2L, 3L, 4L, 5L, 6L});
+        when(followGraphService.followerCount(author.getId())).thenReturn(5);
+        when(followGraphService.followingOf(2L)).thenReturn(new long[]{author.getId()});
+        when(postRepository.findIdsByAuthors(anyCollection(), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(10L));
+        when(postRepository.findSummariesByIdIn(List.of(10L))).thenReturn(List.of(PostSummary.from(post1)));
+
+        feedService.fanOut(post1);
+        List<PostSummary> feed = feedService.getFeed(2L, null, null);
+
+        assertEquals(List.of(PostSummary.from(post1)), feed);
+    }
+
+    @Test
+    void getFeed_ShouldMergeCelebrityPosts_WhenNothingWasPostedSinceStartup() {
+        when(followGraphService.followerCount(author.getId())).thenReturn(5);
+        when(followGraphService.followingOf(2L)).thenReturn(new long[]{author.getId(), 7L});
+        when(postRepository.findIdsByAuthors(anyCollection(), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(10L));
+        when(postRepository.findSummariesByIdIn(List.of(10L))).thenReturn(List.of(PostSummary.from(post1)));
+
+        List<PostSummary> feed = feedService.getFeed(2L, null, null);
+
+        assertEquals(List.of(PostSummary.from(post1)), feed);
+    }
+
+    @Test
+    void getFeed_ShouldReadFollowedAuthors_WhenTimelineIsShorterThanPage() {
+        when(followGraphService.followingOf(2L)).thenReturn(new long[]{author.getId()});
+        when(followGraphService.followerCount(author.getId())).thenReturn(1);
+        when(postRepository.findIdsByAuthors(eq(List.of(author.getId(), 2L)), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(11L, 10L));
+        when(postRepository.findSummariesByIdIn(List.of(11L, 10L)))
+                .thenReturn(List.of(PostSummary.from(post1), PostSummary.from(post2)));
+        timelineStore.push(2L, 11L);
+
+        List<PostSummary> feed = feedService.getFeed(2L, null, null);
+
+        assertEquals(List.of(11L, 10L), feed.stream().map(PostSummary::id).toList());
+    }
+
+    @Test
+    void getFeed_ShouldOnlyMergeCelebrities_WhenTimelineFillsThePage() {
+        when(followGraphService.followingOf(2L)).thenReturn(new long[]{author.getId(), 7L});
+        when(followGraphService.followerCount(author.getId())).thenReturn(5);
+        when(postRepository.findIdsByAuthors(eq(List.of(author.getId())), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(12L));
+        when(postRepository.findSummariesByIdIn(List.of(12L, 11L))).thenReturn(List.of());
+        timelineStore.push(2L, 10L);
+        timelineStore.push(2L, 11L);
+
+        feedService.getFeed(2L, null, 2);
+
+        verify(postRepository).findIdsByAuthors(eq(List.of(author.getId())), eq(Long.MAX_VALUE), any());
+        verify(postRepository).findSummariesByIdIn(List.of(12L, 11L));
+    }
+
+    @Test
+    void getFeed_ShouldReturnEmptyList_WhenTimelineIsEmpty() {
+        List<PostSummary> feed = feedService.getFeed(2L, null, null);
+
+        assertTrue(feed.isEmpty());
+        verify(postRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void timeline_ShouldKeepOnlyNewestEntries() {
+        for (long postId = 1; postId <= 5; postId++) {
+            timelineStore.push(2L, postId);
+        }
+
+        assertEquals(List.of(5L, 4L, 3L), timelineStore.read(2L, null, 10));
+        assertEquals(List.of(4L), timelineStore.read(2L, 5L, 1));
+    }
+}
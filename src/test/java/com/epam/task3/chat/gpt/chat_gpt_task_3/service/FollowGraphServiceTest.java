@@ -0,0 +1,137 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.FollowGraphProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FollowGraphServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private FollowGraphService followGraphService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        followGraphService = new FollowGraphService(jdbcTemplate, ShardRouterTest.unsharded(),
+                new FollowGraphProperties(2, 3));
+    }
+
+    @Test
+    void recordFollow_ShouldKeepAdjacencyListsSorted() {
+        followGraphService.recordFollow(5L, 1L);
+        followGraphService.recordFollow(2L, 1L);
+        followGraphService.recordFollow(9L, 1L);
+        followGraphService.recordFollow(2L, 1L);
+
+        assertArrayEquals(new long[]{2L, 5L, 9L}, followGraphService.followersOf(1L));
+        assertEquals(3, followGraphService.followerCount(1L));
+        assertTrue(followGraphService.follows(2L, 1L));
+        assertFalse(followGraphService.follows(1L, 2L));
+    }
+
+    @Test
+    void recordUnfollow_ShouldRemoveEdge() {
+        followGraphService.recordFollow(2L, 1L);
+        followGraphService.recordFollow(3L, 1L);
+
+        followGraphService.recordUnfollow(2L, 1L);
+        followGraphService.recordUnfollow(4L, 1L);
+
+        assertArrayEquals(new long[]{3L}, followGraphService.followersOf(1L));
+        assertEquals(0, followGraphService.followingCount(2L));
+    }
+
+    @Test
+    void mutualFollows_ShouldReturnUsersFollowingBack() {
+        followGraphService.recordFollow(1L, 2L);
+        followGraphService.recordFollow(1L, 3L);
+        followGraphService.recordFollow(1L, 4L);
+        followGraphService.recordFollow(3L, 1L);
+        followGraphService.recordFollow(4L, 1L);
+        followGraphService.recordFollow(5L, 1L);
+
+        assertArrayEquals(new long[]{3L, 4L}, followGraphService.mutualFollows(1L));
+    }
+
+    @Test
+    void page_ShouldReturnIdsAfterCursor() {
+        FollowGraphService.AdjacencyList ids = FollowGraphService.AdjacencyList.of(new long[]{2L, 4L, 6L, 8L});
+
+        assertArrayEquals(new long[]{2L, 4L}, ids.page(null, 2));
+        assertArrayEquals(new long[]{6L, 8L}, ids.page(4L, 5));
+        assertArrayEquals(new long[]{6L}, ids.page(5L, 1));
+    }
+
+    @Test
+    void adjacencyList_ShouldStaySortedAcrossChunks() {
+        int count = FollowGraphService.AdjacencyList.CHUNK_SIZE * 5;
+        FollowGraphService.AdjacencyList ids = new FollowGraphService.AdjacencyList();
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        while (expected.size() < count) {
+            long id = random.nextInt(count * 4);
+            assertEquals(expected.add(id), ids.add(id));
+        }
+        for (long id = 0; id < count * 4; id += 3) {
+            assertEquals(expected.remove(id), ids.remove(id));
+        }
+
+        long[] sorted = expected.stream().mapToLong(Long::longValue).toArray();
+        assertArrayEquals(sorted, ids.toArray());
+        assertEquals(sorted.length, ids.size());
+        assertTrue(ids.contains(sorted[sorted.length / 2]));
+        assertFalse(ids.contains(3L));
+        Long cursor = sorted[1000];
+        assertArrayEquals(Arrays.copyOfRange(sorted, 1001, 1601), ids.page(cursor, 600));
+    }
+
+    @Test
+    void load_ShouldKeepChangesRecordedWhileScanning() {
+        followGraphService.recordFollow(1L, 2L);
+        doAnswer(invocation -> {
+            // rows read before these changes commit
+            followGraphService.recordFollow(3L, 2L);
+            followGraphService.recordUnfollow(4L, 2L);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong(1)).thenReturn(4L, 5L);
+            when(row.getLong(2)).thenReturn(2L, 2L);
+            handler.processRow(row);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        followGraphService.load();
+
+        assertArrayEquals(new long[]{1L, 3L, 5L}, followGraphService.followersOf(2L));
+        assertFalse(followGraphService.follows(4L, 2L));
+        assertTrue(followGraphService.follows(1L, 2L));
+    }
+
+    @Test
+    void followersPage_ShouldClampRequestedSize() {
+        for (long follower = 1; follower <= 5; follower++) {
+            followGraphService.recordFollow(follower, 10L);
+        }
+
+        assertArrayEquals(new long[]{1L, 2L}, followGraphService.followersPage(10L, null, null));
+        assertArrayEquals(new long[]{1L, 2L}, followGraphService.followersPage(10L, null, -1));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, followGraphService.followersPage(10L, null, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{10L}, followGraphService.followingPage(3L, null, 50));
+    }
+}
@@ -0,0 +1,190 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.LikeCounterProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.LikeRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LikeCounterServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache entityCache;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouterTest.unsharded();
+
+    @Spy
+    private LikeCounterProperties likeCounterProperties = new LikeCounterProperties(2, 10, 2);
+
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties(
+            false, Duration.ofDays(31), 3, 0, "archive");
+
+    private LikeCounterService likeCounterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        likeCounterService = new LikeCounterService(jdbcTemplate, likeRepository, shardRouter, likeCounterProperties,
+                partitioningProperties, entityManagerFactory);
+
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyLong())).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(1L))).thenReturn(List.of(5L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2L))).thenReturn(List.of(0L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3L))).thenReturn(List.of(0L));
+    }
+
+    @Test
+    void getLikeCount_ShouldStartFromPersistedCount() {
+        likeCounterService.recordLike(1L, 7L);
+        likeCounterService.recordLike(1L, 8L);
+        likeCounterService.recordUnlike(1L, 7L);
+
+        assertEquals(6L, likeCounterService.getLikeCount(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteAccumulatedDeltasInOneBatch() {
+        likeCounterService.recordLike(1L, 7L);
+        likeCounterService.recordLike(1L, 8L);
+
+        likeCounterService.flush();
+        likeCounterService.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertArrayEquals(new Object[]{2L, 1L}, batch.getValue().get(0));
+        verify(entityCache, times(1)).evict(Post.class, 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldKeepDeltas_WhenUpdateFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+        likeCounterService.recordLike(1L, 7L);
+
+        likeCounterService.flush();
+        likeCounterService.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture());
+        assertArrayEquals(new Object[]{1L, 1L}, batch.getValue().get(0));
+        verify(entityCache, times(1)).evict(Post.class, 1L);
+    }
+
+    @Test
+    void hasLiked_ShouldLoadLikersOnceAndTrackChanges() {
+        when(likeRepository.findUserIdsByPostId(1L)).thenReturn(List.of(7L));
+
+        assertTrue(likeCounterService.hasLiked(7L, 1L));
+        likeCounterService.recordLike(1L, 8L);
+        likeCounterService.recordUnlike(1L, 7L);
+
+        assertTrue(likeCounterService.hasLiked(8L, 1L));
+        assertFalse(likeCounterService.hasLiked(7L, 1L));
+        verify(likeRepository, times(1)).findUserIdsByPostId(1L);
+    }
+
+    @Test
+    void getLikeCount_ShouldNotCacheMissingPosts() {
+        assertEquals(0L, likeCounterService.getLikeCount(99L));
+        likeCounterService.recordLike(99L, 7L);
+
+        assertFalse(likeCounterService.hasLiked(7L, 99L));
+        assertEquals(0, likeCounterService.cachedPosts());
+    }
+
+    @Test
+    void hasLiked_ShouldQueryTheLike_WhenPostHasTooManyLikers() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(4L))).thenReturn(List.of(50L));
+        when(likeRepository.existsByUserIdAndPostId(7L, 4L)).thenReturn(true);
+
+        assertTrue(likeCounterService.hasLiked(7L, 4L));
+        verify(likeRepository, never()).findUserIdsByPostId(4L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldEvictLeastRecentlyUsedCounters_WhenOverCapacity() {
+        likeCounterService.recordLike(1L, 7L);
+        likeCounterService.recordLike(2L, 7L);
+        likeCounterService.recordLike(3L, 7L);
+
+        likeCounterService.flush();
+
+        assertEquals(2, likeCounterService.cachedPosts());
+        assertEquals(1L, likeCounterService.getLikeCount(3L));
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(3, batch.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcile_ShouldSkipPostsWithPendingDeltas() {
+        when(jdbcTemplate.queryForList(startsWith("select id from posts"), eq(Long.class), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of());
+        when(jdbcTemplate.update(startsWith("update posts"), any(Object[].class))).thenReturn(1);
+        likeCounterService.recordLike(1L, 7L);
+        likeCounterService.getLikeCount(2L);
+
+        likeCounterService.reconcile();
+        likeCounterService.recordLike(1L, 8L);
+        likeCounterService.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), eq(Long.MIN_VALUE), eq(2L), eq(1L));
+        assertTrue(sql.getValue().endsWith("and id not in (?)"));
+        assertEquals(1, likeCounterService.cachedPosts());
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertArrayEquals(new Object[]{2L, 1L}, batch.getValue().get(0));
+        verify(entityCache).evict(Post.class);
+    }
+
+    @Test
+    void reconcile_ShouldWalkPostsInBatches() {
+        when(jdbcTemplate.queryForList(startsWith("select id from posts"), eq(Long.class), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        likeCounterService.reconcile();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), eq(Long.MIN_VALUE), eq(2L));
+        verify(jdbcTemplate).update(anyString(), eq(2L), eq(3L));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), any(), any());
+        assertFalse(sql.getValue().contains("post_created_at"));
+        assertFalse(sql.getValue().contains("not in"));
+        verify(entityCache, never()).evict(Post.class);
+    }
+}
@@ -1,23 +1,40 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Like;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.BulkLikeProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.BulkLikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeOperation;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.LikeResult;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.InvalidBulkRequestException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.LikeRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
-import com.epam.task3.chat.gpt.chat_gpt_task_3.service.LikeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import java.util.Optional;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class LikeServiceTest {
 
+    private static final Long USER_ID = 1L;
+    private static final Long POST_ID = 1L;
+
     @Mock
     private LikeRepository likeRepository;
 
@@ -27,113 +44,187 @@ class LikeServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private LikeCounterService likeCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private LiveStreamService liveStreamService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouterTest.unsharded();
+
+    @Spy
+    private BulkLikeProperties bulkLikeProperties = new BulkLikeProperties(5);
+
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties(
+            false, Duration.ofDays(31), 3, 0, "archive");
+
     @InjectMocks
     private LikeService likeService;
 
-    private User user;
-    private Post post;
-    private Like like;
-
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+    }
 
-        user = new User();
-        user.setId(1L);
+    @Test
+    void likePost_ShouldAddLike_WhenPostNotLiked() {
+        when(likeRepository.insertIfAbsent(USER_ID, POST_ID)).thenReturn(1);
 
-        post = new Post();
-        post.setId(1L);
+        LikeResult result = likeService.likePost(USER_ID, POST_ID);
 
-        like = new Like();
-        like.setUser(user);
-        like.setPost(post);
+        assertEquals(LikeResult.LIKED, result);
+        verify(likeRepository, times(1)).insertIfAbsent(USER_ID, POST_ID);
+        verify(likeCounterService, times(1)).recordLike(POST_ID, USER_ID);
+        verify(trendingService, times(1)).recordLike(POST_ID);
+        verify(outboxService, times(1)).record(eq(EventType.POST_LIKED), eq(POST_ID), any());
+        verify(liveStreamService, times(1)).likeCountChanged(POST_ID);
     }
 
     @Test
-    void likePost_ShouldAddLike_WhenPostNotLiked() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
+    void likePost_ShouldUpdateCountersOnlyAfterCommit() {
+        when(likeRepository.insertIfAbsent(USER_ID, POST_ID)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            likeService.likePost(USER_ID, POST_ID);
+
+            verifyNoInteractions(likeCounterService, trendingService, liveStreamService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(likeCounterService, times(1)).recordLike(POST_ID, USER_ID);
+        verify(trendingService, times(1)).recordLike(POST_ID);
+        verify(liveStreamService, times(1)).likeCountChanged(POST_ID);
+    }
+
+    @Test
+    void likePost_ShouldReportAlreadyLiked_WhenPostAlreadyLiked() {
+        when(likeRepository.insertIfAbsent(USER_ID, POST_ID)).thenReturn(0);
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
 
-        likeService.likePost(user.getId(), post.getId());
+        LikeResult result = likeService.likePost(USER_ID, POST_ID);
 
-        verify(likeRepository, times(1)).save(any(Like.class));
+        assertEquals(LikeResult.ALREADY_LIKED, result);
+        verify(likeCounterService, never()).recordLike(POST_ID, USER_ID);
     }
 
     @Test
-    void likePost_ShouldThrowException_WhenPostAlreadyLiked() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(like));
-
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.likePost(user.getId(), post.getId()));
+    void likePost_ShouldThrowException_WhenPostNotFound() {
+        when(likeRepository.insertIfAbsent(USER_ID, POST_ID)).thenReturn(0);
+        when(postRepository.existsById(POST_ID)).thenReturn(false);
 
-        assertEquals("Post already liked by the user", exception.getMessage());
+        assertThrows(NotFoundException.class, () -> likeService.likePost(USER_ID, POST_ID));
+        verifyNoInteractions(outboxService);
     }
 
     @Test
-    void likePost_ShouldThrowException_WhenUserNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+    void likePost_ShouldThrowException_WhenUserOrPostNotFound() {
+        when(likeRepository.insertIfAbsent(USER_ID, POST_ID))
+                .thenThrow(new DataIntegrityViolationException("fk"));
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.likePost(user.getId(), post.getId()));
+        Exception exception = assertThrows(NotFoundException.class, () ->
+                likeService.likePost(USER_ID, POST_ID));
 
-        assertEquals("User not found", exception.getMessage());
+        assertEquals("User or post not found", exception.getMessage());
+        verify(likeCounterService, never()).recordLike(POST_ID, USER_ID);
     }
 
     @Test
-    void likePost_ShouldThrowException_WhenPostNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.empty());
+    void unlikePost_ShouldRemoveLike_WhenLikeExists() {
+        when(likeRepository.deleteByUserIdAndPostId(USER_ID, POST_ID)).thenReturn(1);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.likePost(user.getId(), post.getId()));
+        LikeResult result = likeService.unlikePost(USER_ID, POST_ID);
 
-        assertEquals("Post not found", exception.getMessage());
+        assertEquals(LikeResult.UNLIKED, result);
+        verify(likeRepository, times(1)).deleteByUserIdAndPostId(USER_ID, POST_ID);
+        verify(likeCounterService, times(1)).recordUnlike(POST_ID, USER_ID);
+        verify(outboxService, times(1)).record(eq(EventType.POST_UNLIKED), eq(POST_ID), any());
     }
 
     @Test
-    void unlikePost_ShouldRemoveLike_WhenLikeExists() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(like));
+    void unlikePost_ShouldReportNotLiked_WhenLikeNotFound() {
+        when(likeRepository.deleteByUserIdAndPostId(USER_ID, POST_ID)).thenReturn(0);
 
-        likeService.unlikePost(user.getId(), post.getId());
+        LikeResult result = likeService.unlikePost(USER_ID, POST_ID);
 
-        verify(likeRepository, times(1)).delete(like);
+        assertEquals(LikeResult.NOT_LIKED, result);
+        verify(likeCounterService, never()).recordUnlike(POST_ID, USER_ID);
+        verifyNoInteractions(outboxService);
     }
 
     @Test
-    void unlikePost_ShouldThrowException_WhenLikeNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
+    void getLikeCount_ShouldReadFromCounters() {
+        when(likeCounterService.getLikeCount(POST_ID)).thenReturn(3L);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.unlikePost(user.getId(), post.getId()));
+        assertEquals(3L, likeService.getLikeCount(POST_ID));
+    }
 
-        assertEquals("Like not found", exception.getMessage());
+    @Test
+    void applyBatch_ShouldDedupeAndReportResultPerItem() {
+        List<LikeOperation> operations = List.of(
+                new LikeOperation(1L, 10L, LikeOperation.Type.LIKE),
+                new LikeOperation(1L, 10L, LikeOperation.Type.UNLIKE),
+                new LikeOperation(1L, 11L, LikeOperation.Type.LIKE),
+                new LikeOperation(1L, 12L, LikeOperation.Type.LIKE),
+                new LikeOperation(2L, 11L, LikeOperation.Type.LIKE));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(postRepository.findExistingIds(anyCollection())).thenReturn(List.of(10L, 11L, 12L));
+        when(jdbcTemplate.batchUpdate(startsWith("insert"), anyList())).thenReturn(new int[]{1, 0});
+        when(jdbcTemplate.batchUpdate(startsWith("delete"), anyList())).thenReturn(new int[]{1});
+
+        List<BulkLikeResult> results = likeService.applyBatch(operations);
+
+        assertEquals(List.of(LikeResult.SUPERSEDED, LikeResult.UNLIKED, LikeResult.LIKED,
+                        LikeResult.ALREADY_LIKED, LikeResult.NOT_FOUND),
+                results.stream().map(BulkLikeResult::result).toList());
+        verify(likeCounterService, times(1)).recordLike(11L, 1L);
+        verify(likeCounterService, times(1)).recordUnlike(10L, 1L);
+        verify(likeCounterService, never()).recordLike(12L, 1L);
+        verify(outboxService, times(1)).recordAll(argThat(events -> events.size() == 2));
     }
 
     @Test
-    void unlikePost_ShouldThrowException_WhenUserNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+    void applyBatch_ShouldRejectIncompleteOperations() {
+        List<LikeOperation> missingOp = List.of(new LikeOperation(1L, 10L, null));
+        List<LikeOperation> missingPost = List.of(new LikeOperation(1L, null, LikeOperation.Type.LIKE));
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.unlikePost(user.getId(), post.getId()));
+        assertThrows(InvalidBulkRequestException.class, () -> likeService.applyBatch(missingOp));
+        assertThrows(InvalidBulkRequestException.class, () -> likeService.applyBatch(missingPost));
+        verifyNoInteractions(jdbcTemplate, userRepository, postRepository);
+    }
 
-        assertEquals("User not found", exception.getMessage());
+    @Test
+    void applyBatch_ShouldRejectBatchesOverTheLimit() {
+        List<LikeOperation> operations = new ArrayList<>();
+        for (long postId = 1; postId <= 6; postId++) {
+            operations.add(new LikeOperation(1L, postId, LikeOperation.Type.LIKE));
+        }
+
+        assertThrows(InvalidBulkRequestException.class, () -> likeService.applyBatch(operations));
+        verifyNoInteractions(jdbcTemplate);
     }
 
     @Test
-    void unlikePost_ShouldThrowException_WhenPostNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(postRepository.findById(post.getId())).thenReturn(Optional.empty());
+    void applyBatch_ShouldSkipJdbc_WhenNothingToWrite() {
+        List<LikeOperation> operations = List.of(new LikeOperation(3L, 10L, LikeOperation.Type.LIKE));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        when(postRepository.findExistingIds(anyCollection())).thenReturn(List.of(10L));
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                likeService.unlikePost(user.getId(), post.getId()));
+        List<BulkLikeResult> results = likeService.applyBatch(operations);
 
-        assertEquals("Post not found", exception.getMessage());
+        assertEquals(LikeResult.NOT_FOUND, results.get(0).result());
+        verifyNoInteractions(jdbcTemplate);
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.LiveStreamProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.TooManySubscribersException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LiveStreamServiceTest {
+
+    @Mock
+    private FollowGraphService followGraphService;
+
+    @Mock
+    private LikeCounterService likeCounterService;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private LiveStreamService liveStreamService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        liveStreamService = new LiveStreamService(new LiveStreamProperties(2, 2, 10, Duration.ofMinutes(1)),
+                followGraphService, likeCounterService, new DirectExecutor(), () -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        });
+    }
+
+    @Test
+    void publishPost_ShouldReachFollowersOnly() {
+        when(followGraphService.followersOf(1L)).thenReturn(new long[]{2L});
+        liveStreamService.subscribe(2L, null);
+        liveStreamService.subscribe(3L, null);
+
+        liveStreamService.publishPost(post(10L, 1L));
+
+        assertEquals(List.of("subscribed", "post"), emitters.get(0).events);
+        assertEquals(List.of("subscribed"), emitters.get(1).events);
+    }
+
+    @Test
+    void dispatchLikeCounts_ShouldSendLatestCountOncePerInterval() {
+        when(likeCounterService.getLikeCount(10L)).thenReturn(7L);
+        liveStreamService.subscribe(2L, List.of(10L));
+
+        liveStreamService.likeCountChanged(10L);
+        liveStreamService.likeCountChanged(10L);
+        liveStreamService.likeCountChanged(11L);
+        liveStreamService.dispatchLikeCounts();
+
+        assertEquals(List.of("subscribed", "likes"), emitters.get(0).events);
+        verify(likeCounterService, times(1)).getLikeCount(10L);
+        verify(likeCounterService, never()).getLikeCount(11L);
+    }
+
+    @Test
+    void subscribe_ShouldRejectConnectionsAboveTheCap() {
+        liveStreamService.subscribe(1L, null);
+        liveStreamService.subscribe(2L, null);
+
+        assertThrows(TooManySubscribersException.class, () -> liveStreamService.subscribe(3L, null));
+        assertEquals(2, liveStreamService.activeSubscriptions());
+    }
+
+    @Test
+    void drain_ShouldDropSubscription_WhenClientIsGone() {
+        when(followGraphService.followersOf(1L)).thenReturn(new long[]{2L});
+        liveStreamService.subscribe(2L, null);
+        emitters.get(0).broken = true;
+
+        liveStreamService.publishPost(post(10L, 1L));
+
+        assertEquals(0, liveStreamService.activeSubscriptions());
+    }
+
+    private static Post post(Long id, Long authorId) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = new Post();
+        post.setId(id);
+        post.setAuthor(author);
+        return post;
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            String frame = builder.build().iterator().next().getData().toString();
+            events.add(frame.substring("event:".length(), frame.indexOf('\n')));
+        }
+    }
+
+    private static final class DirectExecutor extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.NotificationProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.NotificationPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Notification;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        notificationService = new NotificationService(jdbcTemplate, notificationRepository,
+                new NotificationProperties(1, 10, 2, NotificationProperties.DropPolicy.DISCARD_OLDEST, 2, 10),
+                ShardRouterTest.unsharded(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationService.shutdown();
+    }
+
+    @Test
+    void fanOut_ShouldWriteFollowersInKeysetChunks() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L), eq(0L), eq(2)))
+                .thenReturn(List.of(10L, 11L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(7L), eq(11L), eq(2)))
+                .thenReturn(List.of(12L));
+        List<List<Long>> batches = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    batches.add(List.copyOf(invocation.<List<Long>>getArgument(1)));
+                    return new int[0][];
+                });
+
+        notificationService.fanOut(100L, 7L, CREATED);
+
+        assertEquals(List.of(List.of(10L, 11L), List.of(12L)), batches);
+        assertEquals(3, meterRegistry.get("notifications.written").counter().count());
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), any(), any(), any());
+    }
+
+    @Test
+    void fanOut_ShouldStopWhenAuthorHasNoFollowers() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of());
+
+        notificationService.fanOut(100L, 7L, CREATED);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void getNotifications_ShouldReturnPageWithUnreadCountAndCursor() {
+        when(notificationRepository.findFirstPage(1L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(notification(9L, null), notification(8L, CREATED), notification(7L, null)));
+        when(notificationRepository.countByUserIdAndReadAtIsNull(1L)).thenReturn(5L);
+
+        NotificationPage page = notificationService.getNotifications(1L, null, null);
+
+        assertEquals(2, page.items().size());
+        assertFalse(page.items().get(0).read());
+        assertTrue(page.items().get(1).read());
+        assertEquals(8L, page.nextBefore());
+        assertEquals(5L, page.unreadCount());
+    }
+
+    @Test
+    void getNotifications_ShouldContinueBeforeCursor() {
+        when(notificationRepository.findPageBefore(1L, 8L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(notification(7L, null)));
+
+        NotificationPage page = notificationService.getNotifications(1L, 8L, null);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextBefore());
+    }
+
+    @Test
+    void markRead_ShouldMarkEverythingWhenNoUpperBoundGiven() {
+        when(notificationRepository.markRead(eq(1L), eq(Long.MAX_VALUE), any())).thenReturn(3);
+
+        assertEquals(3, notificationService.markRead(1L, null));
+    }
+
+    @Test
+    void dropPolicy_ShouldDiscardOldestQueuedTaskWhenFull() throws InterruptedException {
+        Counter dropped = meterRegistry.counter("dropped");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                NotificationService.dropPolicy(NotificationProperties.DropPolicy.DISCARD_OLDEST, dropped));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new ArrayList<>();
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> ran.add("oldest"));
+            executor.execute(() -> ran.add("newest"));
+            release.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(List.of("newest"), ran);
+        assertEquals(1, dropped.count());
+    }
+
+    @Test
+    void dropPolicy_ShouldDiscardNewestTaskWhenConfigured() {
+        Counter dropped = meterRegistry.counter("dropped");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                NotificationService.dropPolicy(NotificationProperties.DropPolicy.DISCARD_NEWEST, dropped));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> { });
+            executor.execute(() -> fail("newest task should be dropped"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertEquals(1, dropped.count());
+    }
+
+    private static Notification notification(Long id, LocalDateTime readAt) {
+        return new Notification(id, 1L, 100L + id, 2L, CREATED, readAt);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
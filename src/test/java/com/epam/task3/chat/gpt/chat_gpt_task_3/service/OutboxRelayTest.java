@@ -0,0 +1,152 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.OutboxProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.OutboxEvent;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private EventSink eventSink;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, eventSink,
+                new OutboxProperties(2, "memory", 10, "unused", Duration.ofSeconds(1)), ShardRouterTest.unsharded(),
+                TransactionOperations.withoutTransaction(), meterRegistry);
+        when(outboxEventRepository.tryLockRelay(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void relay_ShouldPublishBatchesInOrderAndDeleteThem() throws Exception {
+        OutboxEvent first = event(1L);
+        OutboxEvent second = event(2L);
+        OutboxEvent third = event(3L);
+        when(outboxEventRepository.findOldest(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        outboxRelay.relay();
+
+        var inOrder = inOrder(eventSink, outboxEventRepository);
+        inOrder.verify(eventSink).publish(List.of(first, second));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(eventSink).publish(List.of(third));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        assertEquals(3.0, meterRegistry.counter("outbox.events.published").count());
+        assertEquals(Duration.ZERO, outboxRelay.lag());
+    }
+
+    @Test
+    void relay_ShouldKeepEventsAndReportLag_WhenSinkFails() throws Exception {
+        OutboxEvent pending = event(1L);
+        pending.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(outboxEventRepository.findOldest(any(), any())).thenReturn(List.of(pending));
+        doThrow(new IllegalStateException("sink down")).when(eventSink).publish(anyList());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyIterable());
+        assertTrue(outboxRelay.lag().toMinutes() >= 5);
+        assertTrue(meterRegistry.get("outbox.lag.seconds").gauge().value() >= 300);
+    }
+
+    @Test
+    void relay_ShouldDoNothing_WhenOutboxIsEmpty() throws Exception {
+        when(outboxEventRepository.findOldest(any(), any())).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verify(eventSink, never()).publish(anyList());
+    }
+
+    @Test
+    void relay_ShouldLeaveRecentEventsForTheNextPass() {
+        when(outboxEventRepository.findOldest(any(), any())).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now();
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).findOldest(argThat(cutoff -> !cutoff.isBefore(before.minusSeconds(1))
+                && !cutoff.isAfter(LocalDateTime.now().minusSeconds(1))), any());
+    }
+
+    @Test
+    void relay_ShouldLetOnlyOneRelayDrainTheShard() throws Exception {
+        // the advisory lock is released when the batch's transaction ends
+        Semaphore advisoryLock = new Semaphore(1);
+        ThreadLocal<Boolean> held = ThreadLocal.withInitial(() -> false);
+        when(outboxEventRepository.tryLockRelay(anyLong())).thenAnswer(invocation -> {
+            held.set(advisoryLock.tryAcquire());
+            return held.get();
+        });
+        TransactionOperations transaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    if (held.get()) {
+                        held.set(false);
+                        advisoryLock.release();
+                    }
+                }
+            }
+        };
+        OutboxProperties properties = new OutboxProperties(2, "memory", 10, "unused", Duration.ofSeconds(1));
+        OutboxRelay first = new OutboxRelay(outboxEventRepository, eventSink, properties,
+                ShardRouterTest.unsharded(), transaction, meterRegistry);
+        OutboxRelay second = new OutboxRelay(outboxEventRepository, eventSink, properties,
+                ShardRouterTest.unsharded(), transaction, new SimpleMeterRegistry());
+        OutboxEvent event = event(1L);
+        when(outboxEventRepository.findOldest(any(), any())).thenReturn(List.of(event), List.of());
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            publishing.countDown();
+            release.await();
+            return null;
+        }).when(eventSink).publish(anyList());
+
+        Thread relaying = Thread.ofVirtual().start(first::relay);
+        assertTrue(publishing.await(5, TimeUnit.SECONDS));
+        second.relay();
+        release.countDown();
+        relaying.join();
+
+        verify(eventSink, times(1)).publish(List.of(event));
+        verify(outboxEventRepository, times(1)).findOldest(any(), any());
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    private static OutboxEvent event(Long id) {
+        return new OutboxEvent(id, "post", 10L, EventType.POST_LIKED, "{}", LocalDateTime.now());
+    }
+}
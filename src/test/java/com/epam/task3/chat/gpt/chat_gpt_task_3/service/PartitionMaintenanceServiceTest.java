@@ -0,0 +1,73 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Clock clock = Clock.fixed(Instant.parse("2024-11-20T10:00:00Z"), ZoneOffset.UTC);
+
+    private PartitionMaintenanceService service(int premakeMonths, int retentionMonths) {
+        PartitioningProperties properties = new PartitioningProperties(
+                true, Duration.ofDays(31), premakeMonths, retentionMonths, "archive");
+        return new PartitionMaintenanceService(jdbcTemplate, properties, ShardRouterTest.unsharded(), clock);
+    }
+
+    @Test
+    void createUpcoming_ShouldCreateCurrentAndPremadeMonthsForBothTables() {
+        service(2, 0).createUpcoming();
+
+        verify(jdbcTemplate).execute("create table if not exists posts_p2024_11 partition of posts " +
+                "for values from ('2024-11-01') to ('2024-12-01')");
+        verify(jdbcTemplate).execute("create table if not exists likes_p2024_12 partition of likes " +
+                "for values from ('2024-12-01') to ('2025-01-01')");
+        verify(jdbcTemplate).execute("create table if not exists posts_p2025_01 partition of posts " +
+                "for values from ('2025-01-01') to ('2025-02-01')");
+        verify(jdbcTemplate, times(6)).execute(anyString());
+    }
+
+    @Test
+    void archiveExpired_ShouldDetachLikesBeforePostsAndMoveThemToArchiveSchema() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("likes")))
+                .thenReturn(List.of("likes_p2024_07", "likes_p2024_08", "likes_p2024_09"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("posts")))
+                .thenReturn(List.of("posts_p2024_07", "posts_p2024_08", "posts_p2024_09"));
+
+        service(0, 3).archiveExpired();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("alter table likes detach partition likes_p2024_07 concurrently");
+        inOrder.verify(jdbcTemplate).execute("alter table likes_p2024_07 set schema archive");
+        inOrder.verify(jdbcTemplate).execute("alter table posts detach partition posts_p2024_07 concurrently");
+        inOrder.verify(jdbcTemplate).execute("alter table posts_p2024_07 set schema archive");
+        verify(jdbcTemplate, never()).execute("alter table posts detach partition posts_p2024_08 concurrently");
+    }
+
+    @Test
+    void archiveExpired_ShouldDoNothing_WhenRetentionIsDisabled() {
+        service(0, 0).archiveExpired();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void monthOf_ShouldIgnoreNonMonthlyPartitions() {
+        assertEquals(YearMonth.of(2024, 7), PartitionMaintenanceService.monthOf("posts_p2024_07"));
+        assertNull(PartitionMaintenanceService.monthOf("posts_default"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.GroupCommitProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostBatchWriterTest {
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private PostBatchWriter postBatchWriter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AtomicLong ids = new AtomicLong(100);
+        when(postService.createPosts(anyList())).thenAnswer(invocation -> {
+            List<Post> posts = invocation.getArgument(0);
+            batchSizes.add(posts.size());
+            posts.forEach(post -> post.setId(ids.incrementAndGet()));
+            return posts;
+        });
+        when(userRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (id < 10) {
+                    User user = new User();
+                    user.setId(id);
+                    users.add(user);
+                }
+            }
+            return users;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        postBatchWriter.shutdown();
+    }
+
+    private PostBatchWriter writer(boolean enabled, int maxBatchSize, Duration maxDelay) {
+        postBatchWriter = new PostBatchWriter(postService, userRepository, ShardRouterTest.unsharded(),
+                TransactionOperations.withoutTransaction(),
+                new GroupCommitProperties(enabled, maxBatchSize, maxDelay, 100), meterRegistry);
+        return postBatchWriter;
+    }
+
+    @Test
+    void submit_ShouldCompleteEveryCallerWithItsPost_InBatchesNoLargerThanTheLimit() {
+        PostBatchWriter writer = writer(true, 2, Duration.ofMillis(20));
+
+        List<CompletableFuture<Post>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.submit(1L, "Title " + i, "Body"));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            Post post = futures.get(i).join();
+            assertEquals("Title " + i, post.getTitle());
+            assertNotNull(post.getId());
+        }
+        assertEquals(5, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 2));
+        assertEquals(batchSizes.size(), meterRegistry.summary("posts.group.commit.fill.ratio").count());
+        verify(postService, never()).createPost(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void submit_ShouldFailOnlyPostsOfMissingAuthors() {
+        PostBatchWriter writer = writer(true, 10, Duration.ofMillis(20));
+
+        CompletableFuture<Post> missing = writer.submit(42L, "Missing", "Body");
+        CompletableFuture<Post> present = writer.submit(1L, "Present", "Body");
+
+        assertEquals("Present", present.join().getTitle());
+        CompletionException exception = assertThrows(CompletionException.class, missing::join);
+        assertEquals("User not found", exception.getCause().getMessage());
+    }
+
+    @Test
+    void submit_ShouldFailTheBatch_WhenTheInsertFails() {
+        PostBatchWriter writer = writer(true, 10, Duration.ofMillis(20));
+        when(postService.createPosts(anyList())).thenThrow(new IllegalStateException("insert failed"));
+
+        CompletableFuture<Post> future = writer.submit(1L, "Title", "Body");
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertEquals("insert failed", exception.getCause().getMessage());
+    }
+
+    @Test
+    void submit_ShouldWriteDirectly_WhenGroupCommitIsDisabled() {
+        Post post = new Post();
+        when(postService.createPost(1L, "Title", "Body")).thenReturn(post);
+
+        CompletableFuture<Post> future = writer(false, 10, Duration.ofMillis(2)).submit(1L, "Title", "Body");
+
+        assertTrue(future.isDone());
+        assertSame(post, future.join());
+        verify(postService, never()).createPosts(anyList());
+    }
+
+    @Test
+    void submit_ShouldWriteDirectly_AfterShutdown() throws InterruptedException {
+        Post post = new Post();
+        when(postService.createPost(1L, "Title", "Body")).thenReturn(post);
+        PostBatchWriter writer = writer(true, 10, Duration.ofMillis(2));
+        writer.shutdown();
+
+        CompletableFuture<Post> future = writer.submit(1L, "Title", "Body");
+
+        assertTrue(future.isDone());
+        assertSame(post, future.join());
+    }
+}
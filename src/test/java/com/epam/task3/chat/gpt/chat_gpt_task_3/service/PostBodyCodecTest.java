@@ -0,0 +1,62 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostBodyProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostBodyCodecTest {
+
+    private final PostBodyCodec postBodyCodec = new PostBodyCodec(new PostBodyProperties(20, 6));
+
+    @Test
+    void applyPreview_ShouldKeepShortBodyWhole() {
+        Post post = new Post();
+        post.setBody("Short body");
+
+        postBodyCodec.applyPreview(post);
+
+        assertEquals("Short body", post.getPreview());
+        assertFalse(post.isTruncated());
+    }
+
+    @Test
+    void applyPreview_ShouldTruncateLongBodyWithoutSplittingSurrogatePairs() {
+        Post post = new Post();
+        post.setBody("x".repeat(19) + "😀 and more");
+
+        postBodyCodec.applyPreview(post);
+
+        assertEquals("x".repeat(19), post.getPreview());
+        assertTrue(post.isTruncated());
+    }
+
+    @Test
+    void encode_ShouldDeflateCompressibleBodiesAndDecodeThemBack() {
+        String body = "The same sentence over and over. ".repeat(200);
+
+        PostBody encoded = postBodyCodec.encode(1L, body);
+
+        assertEquals(PostBody.Encoding.DEFLATE, encoded.getEncoding());
+        assertTrue(encoded.getContent().length < body.length() / 10);
+        assertEquals(body, postBodyCodec.decode(encoded));
+    }
+
+    @Test
+    void encode_ShouldStorePlainText_WhenDeflateDoesNotHelp() {
+        StringBuilder random = new StringBuilder();
+        Random generator = new Random(7);
+        for (int i = 0; i < 64; i++) {
+            random.append((char) ('!' + generator.nextInt(90)));
+        }
+
+        PostBody encoded = postBodyCodec.encode(1L, random.toString());
+
+        assertEquals(PostBody.Encoding.PLAIN, encoded.getEncoding());
+        assertEquals(random.toString(), postBodyCodec.decode(encoded));
+    }
+}
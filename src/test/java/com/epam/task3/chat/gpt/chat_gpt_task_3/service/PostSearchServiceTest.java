@@ -0,0 +1,105 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostBodyProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SearchProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.SearchPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class PostSearchServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PostSearchIndex postSearchIndex;
+    private PostSearchService postSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        SearchProperties searchProperties = new SearchProperties(2.0, 2, 10);
+        postSearchIndex = new PostSearchIndex(searchProperties);
+        postSearchService = new PostSearchService(postSearchIndex, postRepository, jdbcTemplate, searchProperties,
+                ShardRouterTest.unsharded(), new PostBodyCodec(new PostBodyProperties(280, 6)));
+
+        postSearchIndex.index(1L, "Spring tips", "How to configure beans");
+        postSearchIndex.index(2L, "Weekend", "Notes about spring cleaning and Spring Boot");
+        postSearchIndex.index(3L, "Cooking", "A recipe for pasta");
+    }
+
+    @Test
+    void index_ShouldRankTitleMatchesFirst() {
+        PostSearchIndex.Hits hits = postSearchIndex.search("spring", 0, 10);
+
+        assertEquals(List.of(1L, 2L), hits.postIds());
+        assertEquals(2, hits.totalHits());
+    }
+
+    @Test
+    void index_ShouldMatchCaseInsensitiveTermsAcrossFields() {
+        assertEquals(List.of(3L), postSearchIndex.search("PASTA!", 0, 10).postIds());
+        assertTrue(postSearchIndex.search("kotlin", 0, 10).postIds().isEmpty());
+    }
+
+    @Test
+    void index_ShouldPaginateRankedResults() {
+        postSearchIndex.index(4L, "Spring", "spring spring");
+
+        assertEquals(List.of(4L, 1L), postSearchIndex.search("spring", 0, 2).postIds());
+        assertEquals(List.of(2L), postSearchIndex.search("spring", 1, 2).postIds());
+        assertTrue(postSearchIndex.search("spring", 2, 2).postIds().isEmpty());
+    }
+
+    @Test
+    void index_ShouldReturnEmptyPage_WhenPageIsTooLargeToAddress() {
+        PostSearchIndex.Hits hits = postSearchIndex.search("spring", Integer.MAX_VALUE, 100);
+
+        assertTrue(hits.postIds().isEmpty());
+        assertEquals(2, hits.totalHits());
+    }
+
+    @Test
+    void search_ShouldReturnSummariesInRankOrder() {
+        User author = new User();
+        author.setId(1L);
+        Post post1 = new Post();
+        post1.setId(1L);
+        post1.setAuthor(author);
+        Post post2 = new Post();
+        post2.setId(2L);
+        post2.setAuthor(author);
+        when(postRepository.findSummariesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(PostSummary.from(post2), PostSummary.from(post1)));
+
+        SearchPage<PostSummary> page = postSearchService.search("spring", null, null);
+
+        assertEquals(List.of(1L, 2L), page.items().stream().map(PostSummary::id).toList());
+        assertEquals(2, page.size());
+        assertEquals(2, page.totalHits());
+    }
+
+    @Test
+    void search_ShouldNotQueryRepository_WhenNothingMatches() {
+        SearchPage<PostSummary> page = postSearchService.search("kotlin", 0, 5);
+
+        assertTrue(page.items().isEmpty());
+        verify(postRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+}
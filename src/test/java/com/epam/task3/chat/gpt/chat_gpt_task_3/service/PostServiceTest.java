@@ -1,7 +1,20 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.DataSourceRouting;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PartitioningProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostBodyProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.PostPageProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ReplicaProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.CursorPage;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostDetail;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.PostSummary;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.InvalidCursorException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.NotFoundException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.Post;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.PostBody;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostBodyRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.PostRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.service.PostService;
@@ -10,12 +23,29 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PostServiceTest {
@@ -26,12 +56,52 @@ class PostServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private PostSearchService postSearchService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private LiveStreamService liveStreamService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PostBodyRepository postBodyRepository;
+
+    @Spy
+    private PostBodyCodec postBodyCodec = new PostBodyCodec(new PostBodyProperties(10, 6));
+
+    @Spy
+    private PostPageProperties postPageProperties = new PostPageProperties(1, 2);
+
+    @Spy
+    private ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(
+            new ReplicaProperties(true, List.of(), null, null, 10, Duration.ofSeconds(2), Duration.ofMinutes(1)));
+
+    @Spy
+    private PartitioningProperties partitioningProperties = new PartitioningProperties(
+            false, Duration.ofDays(31), 3, 0, "archive");
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouterTest.unsharded();
+
     @InjectMocks
     private PostService postService;
 
     private User user;
     private Post post1;
     private Post post2;
+    private PostSummary summary1;
+    private PostSummary summary2;
 
     @BeforeEach
     void setUp() {
@@ -46,12 +116,17 @@ class PostServiceTest {
         post1.setTitle("First Post");
         post1.setBody("This is the first post");
         post1.setAuthor(user);
+        post1.setCreatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
 
         post2 = new Post();
         post2.setId(2L);
         post2.setTitle("Second Post");
         post2.setBody("This is the second post");
         post2.setAuthor(user);
+        post2.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        summary1 = PostSummary.from(post1);
+        summary2 = PostSummary.from(post2);
     }
 
     @Test
@@ -67,6 +142,143 @@ class PostServiceTest {
         assertEquals(user, result.getAuthor());
 
         verify(postRepository, times(1)).save(any(Post.class));
+        verify(feedService, times(1)).fanOut(post1);
+        verify(postSearchService, times(1)).index(post1);
+        verify(outboxService, times(1)).record(eq(EventType.POST_CREATED), eq(post1.getId()), any());
+        verify(liveStreamService, times(1)).publishPost(post1);
+        verify(notificationService, times(1)).notifyFollowers(post1);
+        verify(readYourWritesTracker, times(1)).recordWrite(user.getId());
+    }
+
+    @Test
+    void createPost_ShouldFanOutAndIndexOnlyAfterCommit() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(postRepository.save(any(Post.class))).thenReturn(post1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postService.createPost(user.getId(), post1.getTitle(), post1.getBody());
+
+            verifyNoInteractions(feedService, postSearchService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(feedService, times(1)).fanOut(post1);
+        verify(postSearchService, times(1)).index(post1);
+    }
+
+    @Test
+    void createPost_ShouldKeepPreviewOnPostAndStoreLongBodySeparately() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post saved = invocation.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+
+        Post result = postService.createPost(user.getId(), "Long", "A body longer than the preview");
+
+        assertEquals("A body lon", result.getPreview());
+        assertTrue(result.isTruncated());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("insert into post_bodies"), anyList(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(postSearchService, times(1)).index(argThat(post -> post.getBody().endsWith("preview")));
+    }
+
+    @Test
+    void createPost_ShouldNotStoreBody_WhenItFitsInPreview() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post saved = invocation.getArgument(0);
+            saved.setId(6L);
+            return saved;
+        });
+
+        Post result = postService.createPost(user.getId(), "Short", "Short");
+
+        assertEquals("Short", result.getPreview());
+        assertFalse(result.isTruncated());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void getPost_ShouldLoadAndDecodeFullBody_WhenPreviewIsTruncated() {
+        String body = "A body longer than the preview";
+        post1.setPreview(postBodyCodec.preview(body));
+        post1.setTruncated(true);
+        PostBody stored = postBodyCodec.encode(1L, body);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post1));
+        when(postBodyRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        PostDetail detail = postService.getPost(1L);
+
+        assertEquals(body, detail.body());
+        assertEquals("First Post", detail.title());
+    }
+
+    @Test
+    void getPost_ShouldReturnPreviewAsBody_WhenNotTruncated() {
+        post1.setPreview("Short");
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post1));
+
+        assertEquals("Short", postService.getPost(1L).body());
+        verifyNoInteractions(postBodyRepository);
+    }
+
+    @Test
+    void getPost_ShouldThrowNotFound_WhenPostDoesNotExist() {
+        when(postRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> postService.getPost(9L));
+    }
+
+    @Test
+    void createPosts_ShouldReserveIdsAndInsertBatchInOneStatement() {
+        Post first = new Post();
+        first.setTitle("First");
+        first.setBody("Body");
+        first.setAuthor(user);
+        Post second = new Post();
+        second.setTitle("Second");
+        second.setBody("Body");
+        second.setAuthor(user);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2))).thenReturn(List.of(41L, 42L));
+
+        List<Post> saved = postService.createPosts(new ArrayList<>(List.of(first, second)));
+
+        assertEquals(List.of(41L, 42L), saved.stream().map(Post::getId).toList());
+        assertNotNull(first.getCreatedAt());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("insert into posts"), eq(saved), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(outboxService, times(1)).recordAll(argThat(events -> events.size() == 2));
+        verify(postRepository, never()).save(any(Post.class));
+        verify(feedService, times(1)).fanOut(second);
+        verify(notificationService, times(1)).notifyFollowers(first);
+    }
+
+    @Test
+    void getPostsByUser_ShouldReadFromPrimary_RightAfterAuthorPosted() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(postRepository.save(any(Post.class))).thenReturn(post1);
+        boolean[] onPrimary = new boolean[2];
+        when(postRepository.findFirstPageByAuthorId(eq(user.getId()), any(), any())).thenAnswer(invocation -> {
+            onPrimary[0] = DataSourceRouting.primaryRequired();
+            return List.of(summary1);
+        });
+        when(postRepository.findFirstPageByAuthorId(eq(2L), any(), any())).thenAnswer(invocation -> {
+            onPrimary[1] = DataSourceRouting.primaryRequired();
+            return List.of();
+        });
+
+        postService.createPost(user.getId(), post1.getTitle(), post1.getBody());
+        postService.getPostsByUser(user.getId(), null, null);
+        postService.getPostsByUser(2L, null, null);
+
+        assertTrue(onPrimary[0]);
+        assertFalse(onPrimary[1]);
+        assertFalse(DataSourceRouting.primaryRequired());
     }
 
     @Test
@@ -78,6 +290,7 @@ class PostServiceTest {
 
         assertEquals("User not found", exception.getMessage());
         verify(postRepository, never()).save(any(Post.class));
+        verify(feedService, never()).fanOut(any(Post.class));
     }
 
     @Test
@@ -108,7 +321,7 @@ class PostServiceTest {
 
     @Test
     void getAllPosts_ShouldReturnAllPosts() {
-        when(postRepository.findAll()).thenReturn(Arrays.asList(post1, post2));
+        when(postRepository.findAll(any(Sort.class))).thenReturn(Arrays.asList(post1, post2));
 
         List<Post> posts = postService.getAllPosts();
 
@@ -117,6 +330,81 @@ class PostServiceTest {
         assertEquals("First Post", posts.get(0).getTitle());
         assertEquals("Second Post", posts.get(1).getTitle());
 
-        verify(postRepository, times(1)).findAll();
+        verify(postRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void getPosts_ShouldReturnFirstPageWithCursor_WhenMorePostsExist() {
+        when(postRepository.findFirstPage(PartitioningProperties.BEGINNING, PageRequest.of(0, 2))).thenReturn(Arrays.asList(summary1, summary2));
+
+        CursorPage<PostSummary> page = postService.getPosts(null, null);
+
+        assertEquals(List.of(summary1), page.items());
+        assertEquals(PostCursor.of(summary1).encode(), page.nextCursor());
+    }
+
+    @Test
+    void getPosts_ShouldContinueAfterCursor() {
+        String cursor = PostCursor.of(summary1).encode();
+        when(postRepository.findPageAfter(PartitioningProperties.BEGINNING, post1.getCreatedAt(), post1.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(summary2));
+
+        CursorPage<PostSummary> page = postService.getPosts(cursor, 1);
+
+        assertEquals(List.of(summary2), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPosts_ShouldCapPageSize() {
+        when(postRepository.findFirstPage(PartitioningProperties.BEGINNING, PageRequest.of(0, 3))).thenReturn(Arrays.asList(summary1, summary2));
+
+        CursorPage<PostSummary> page = postService.getPosts(null, 500);
+
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPosts_ShouldOnlyReadRecentPartitions_WhenWindowFillsPage() {
+        LocalDateTime since = LocalDateTime.now().minusDays(31);
+        doReturn(since).when(partitioningProperties).recentSince(any());
+        when(postRepository.findFirstPage(since, PageRequest.of(0, 2))).thenReturn(Arrays.asList(summary1, summary2));
+
+        CursorPage<PostSummary> page = postService.getPosts(null, null);
+
+        assertEquals(List.of(summary1), page.items());
+        verify(postRepository, never()).findFirstPage(eq(PartitioningProperties.BEGINNING), any());
+    }
+
+    @Test
+    void getPosts_ShouldWidenToFullHistory_WhenWindowCannotFillPage() {
+        LocalDateTime since = LocalDateTime.now().minusDays(31);
+        doReturn(since).when(partitioningProperties).recentSince(any());
+        when(postRepository.findFirstPage(since, PageRequest.of(0, 2))).thenReturn(List.of(summary1));
+        when(postRepository.findFirstPage(PartitioningProperties.BEGINNING, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(summary1, summary2));
+
+        CursorPage<PostSummary> page = postService.getPosts(null, null);
+
+        assertEquals(List.of(summary1), page.items());
+        assertEquals(PostCursor.of(summary1).encode(), page.nextCursor());
+    }
+
+    @Test
+    void getPosts_ShouldThrowException_WhenCursorIsInvalid() {
+        assertThrows(InvalidCursorException.class, () -> postService.getPosts("not-a-cursor", null));
+    }
+
+    @Test
+    void getPostsByUserPage_ShouldContinueAfterCursor() {
+        String cursor = PostCursor.of(summary1).encode();
+        when(postRepository.findPageByAuthorIdAfter(user.getId(), PartitioningProperties.BEGINNING, post1.getCreatedAt(), post1.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(summary2));
+
+        CursorPage<PostSummary> page = postService.getPostsByUser(user.getId(), cursor, null);
+
+        assertEquals(List.of(summary2), page.items());
+        assertNull(page.nextCursor());
     }
 }
\ No newline at end of file
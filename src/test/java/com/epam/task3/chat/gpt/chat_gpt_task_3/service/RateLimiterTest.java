@@ -0,0 +1,108 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private RateLimiter rateLimiter;
+    private int likes;
+    private int posts;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, RateLimitProperties.Bucket> buckets = new LinkedHashMap<>();
+        buckets.put("likes", new RateLimitProperties.Bucket(10, 3));
+        buckets.put("posts", new RateLimitProperties.Bucket(1, 1));
+        rateLimiter = new RateLimiter(new RateLimitProperties(true, 16, buckets,
+                Duration.ofMillis(100), Duration.ofSeconds(1), 0.05));
+        likes = rateLimiter.bucketIndex("likes");
+        posts = rateLimiter.bucketIndex("posts");
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReportWait() {
+        long now = SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(likes, 1L, now));
+        }
+
+        long wait = rateLimiter.tryAcquire(likes, 1L, now);
+
+        assertEquals(SECOND / 10, wait);
+        assertEquals(0, rateLimiter.tryAcquire(likes, 1L, now + wait));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepUsersAndBucketsIndependent() {
+        long now = SECOND;
+        assertEquals(0, rateLimiter.tryAcquire(posts, 1L, now));
+        assertTrue(rateLimiter.tryAcquire(posts, 1L, now) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(posts, 2L, now));
+        assertEquals(0, rateLimiter.tryAcquire(likes, 1L, now));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSnowflakeSizedUserIdsApart() {
+        long now = SECOND;
+        // equal in their low 58 bits, so shifting the bucket in above them would map both to one key
+        long first = (1L << 62) | 12345L;
+        long second = (1L << 61) | 12345L;
+        assertEquals(0, rateLimiter.tryAcquire(posts, first, now));
+        assertTrue(rateLimiter.tryAcquire(posts, first, now) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(posts, second, now));
+        assertEquals(0, rateLimiter.tryAcquire(posts, Long.MAX_VALUE, now));
+    }
+
+    @Test
+    void tryAcquire_ShouldReuseIdleSlotsWhenTableIsFull() {
+        long now = SECOND;
+        for (long userId = 0; userId < 64; userId++) {
+            rateLimiter.tryAcquire(posts, userId, now);
+        }
+
+        // every slot is held by a user who has not refilled yet, so unknown users fail open
+        assertEquals(0, rateLimiter.tryAcquire(posts, 1000L, now));
+        assertEquals(0, rateLimiter.tryAcquire(posts, 1000L, now));
+
+        // once the buckets have refilled their slots are reclaimed and limiting resumes
+        long later = now + 2 * SECOND;
+        assertEquals(0, rateLimiter.tryAcquire(posts, 1000L, later));
+        assertTrue(rateLimiter.tryAcquire(posts, 1000L, later) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitClientsWithoutUserIdSeparately() {
+        long now = SECOND;
+        long first = RateLimiter.clientKey("10.0.0.1");
+        long second = RateLimiter.clientKey("10.0.0.2");
+        assertTrue(first < 0 && second < 0);
+        assertEquals(0, rateLimiter.tryAcquire(posts, first, now));
+        assertTrue(rateLimiter.tryAcquire(posts, first, now) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(posts, second, now));
+        assertEquals(0, rateLimiter.tryAcquire(posts, 0L, now));
+    }
+
+    @Test
+    void bucket_ShouldRejectNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitProperties.Bucket(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitProperties.Bucket(-1, 5));
+    }
+
+    @Test
+    void bucketIndex_ShouldRejectUnknownBucket() {
+        assertThrows(IllegalArgumentException.class, () -> rateLimiter.bucketIndex("comments"));
+    }
+}
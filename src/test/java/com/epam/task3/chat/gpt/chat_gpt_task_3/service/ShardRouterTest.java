@@ -0,0 +1,125 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardContext;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardRing;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.ShardingProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.SnowflakeIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    static ShardRouter unsharded() {
+        return new ShardRouter(new ShardingProperties(false, List.of(), null, null, 10, 160, 0), null,
+                (SnowflakeIds) null);
+    }
+
+    static ShardRouter sharded(int shards) {
+        List<String> urls = IntStream.range(1, shards).mapToObj(i -> "jdbc:shard" + i).toList();
+        return new ShardRouter(new ShardingProperties(true, urls, null, null, 10, 160, 0),
+                mock(PlatformTransactionManager.class), new SnowflakeIds(0));
+    }
+
+    @Test
+    void shardFor_ShouldSpreadUsersEvenlyOverTheRing() {
+        ShardRing ring = new ShardRing(4, 160);
+        int[] counts = new int[4];
+        for (long userId = 1; userId <= 40_000; userId++) {
+            counts[ring.shardFor(userId)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 8_000 && count < 12_000, "uneven shard: " + count);
+        }
+    }
+
+    @Test
+    void shardFor_ShouldOnlyMoveUsersToTheNewShard_WhenAShardIsAdded() {
+        ShardRing before = new ShardRing(4, 160);
+        ShardRing after = new ShardRing(5, 160);
+        int moved = 0;
+        for (long userId = 1; userId <= 50_000; userId++) {
+            int from = before.shardFor(userId);
+            int to = after.shardFor(userId);
+            if (from != to) {
+                assertEquals(4, to);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 7_000 && moved < 13_000, "moved: " + moved);
+    }
+
+    @Test
+    void nextId_ShouldEncodeShardAndIncrease() {
+        SnowflakeIds ids = new SnowflakeIds(3);
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = ids.nextId(i % 5);
+            assertEquals(i % 5, SnowflakeIds.shardOf(id));
+            assertTrue(id > previous || i % 5 != 0);
+            if (i % 5 == 0) {
+                previous = id;
+            }
+        }
+    }
+
+    @Test
+    void merge_ShouldInterleaveSortedShardResultsUpToTheLimit() {
+        List<Integer> merged = ShardRouter.merge(List.of(List.of(9, 5, 1), List.of(8, 7), List.of(), List.of(6)),
+                Comparator.reverseOrder(), 4);
+
+        assertEquals(List.of(9, 8, 7, 6), merged);
+    }
+
+    @Test
+    void merge_ShouldConcatenate_WhenOrderIsNull() {
+        assertEquals(List.of(1, 2, 3), ShardRouter.merge(List.of(List.of(1, 2), List.of(3, 4)), null, 3));
+    }
+
+    @Test
+    void gather_ShouldQueryEveryShardAndMergeResults() {
+        ShardRouter router = sharded(3);
+        try {
+            List<Integer> rows = router.gather(() -> List.of(ShardContext.current() * 10 + 1, ShardContext.current()),
+                    Comparator.reverseOrder(), 5);
+
+            assertEquals(List.of(21, 11, 2, 1, 1), rows);
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void gatherByShard_ShouldRunQueryOnlyOnShardsOwningTheKeys() {
+        ShardRouter router = sharded(4);
+        try {
+            SnowflakeIds ids = router.snowflakeIds();
+            List<Long> postIds = List.of(ids.nextId(1), ids.nextId(3), ids.nextId(1));
+
+            List<String> rows = router.gatherByShard(postIds, router::shardOfPost,
+                    keys -> List.of(ShardContext.current() + ":" + keys.size()), null, 10);
+
+            assertEquals(List.of("1:2", "3:1"), rows);
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void unsharded_ShouldRunActionsDirectly() {
+        ShardRouter router = unsharded();
+
+        assertEquals(1, router.shardCount());
+        assertEquals(0, router.shardOfPost(Long.MAX_VALUE));
+        assertEquals("done", router.writeOnShard(0, () -> "done"));
+        assertNull(ShardContext.current());
+    }
+}
@@ -0,0 +1,123 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.TrendingProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.dto.TrendingPost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingServiceTest {
+
+    private MutableClock clock;
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        TrendingProperties properties = new TrendingProperties(
+                Duration.ofMinutes(1), 60, Duration.ofMinutes(10), 2, 3);
+        trendingService = new TrendingService(properties, clock);
+    }
+
+    @Test
+    void refresh_ShouldRankRecentLikesAboveOlderOnes() {
+        like(1L, 5);
+        clock.advance(Duration.ofMinutes(30));
+        like(2L, 3);
+
+        trendingService.refresh();
+        List<TrendingPost> trending = trendingService.getTrending(null);
+
+        assertEquals(List.of(2L, 1L), trending.stream().map(TrendingPost::postId).toList());
+        assertEquals(5, trending.get(1).recentLikes());
+    }
+
+    @Test
+    void refresh_ShouldKeepOnlyTopK() {
+        like(1L, 1);
+        like(2L, 3);
+        like(3L, 2);
+
+        trendingService.refresh();
+
+        assertEquals(List.of(2L, 3L), trendingService.getTrending(10).stream().map(TrendingPost::postId).toList());
+        assertEquals(List.of(2L), trendingService.getTrending(1).stream().map(TrendingPost::postId).toList());
+    }
+
+    @Test
+    void refresh_ShouldDropPostsOutsideTheWindow() {
+        like(1L, 4);
+        clock.advance(Duration.ofMinutes(61));
+
+        trendingService.refresh();
+
+        assertTrue(trendingService.getTrending(null).isEmpty());
+        assertEquals(0, trendingService.trackedPosts());
+    }
+
+    @Test
+    void refresh_ShouldDropPostsWhoseLikesWereWithdrawn() {
+        like(1L, 1);
+        trendingService.recordUnlike(1L);
+
+        trendingService.refresh();
+
+        assertEquals(0, trendingService.trackedPosts());
+    }
+
+    @Test
+    void refresh_ShouldEvictColdestPostsAboveCapacity() {
+        like(1L, 1);
+        like(2L, 2);
+        like(3L, 3);
+        like(4L, 4);
+
+        trendingService.refresh();
+
+        assertEquals(3, trendingService.trackedPosts());
+        trendingService.recordUnlike(1L);
+        trendingService.refresh();
+        assertEquals(3, trendingService.trackedPosts());
+    }
+
+    private void like(Long postId, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingService.recordLike(postId);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
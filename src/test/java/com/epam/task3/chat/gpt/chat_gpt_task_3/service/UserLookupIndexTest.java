@@ -0,0 +1,132 @@
+package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
+
+import com.epam.task3.chat.gpt.chat_gpt_task_3.config.UserIndexProperties;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserLookupIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserLookupIndex userLookupIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        userLookupIndex = new UserLookupIndex(jdbcTemplate, ShardRouterTest.unsharded(),
+                new UserIndexProperties(1_000, 0.01, 2), meterRegistry);
+
+        when(jdbcTemplate.queryForObject("select count(*) from users", Long.class)).thenReturn(3L);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L);
+        when(resultSet.getString(2)).thenReturn("alice", "bob", "carol");
+        when(resultSet.getString(3)).thenReturn("alice@example.com", "bob@example.com", "carol@example.com");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq("select id, username, email from users"), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void mightContain_ShouldAnswerYes_UntilIndexIsLoaded() {
+        assertTrue(userLookupIndex.mightContainUsername("nobody"));
+        assertTrue(userLookupIndex.mightContainEmail("nobody@example.com"));
+    }
+
+    @Test
+    void load_ShouldIndexExistingUsersAndRuleOutOthers() {
+        userLookupIndex.load();
+
+        assertTrue(userLookupIndex.mightContainUsername("bob"));
+        assertTrue(userLookupIndex.mightContainEmail("carol@example.com"));
+        assertFalse(userLookupIndex.mightContainUsername("nobody"));
+        assertEquals(1.0, meterRegistry.counter("users.index.lookups", "result", "absent").count());
+    }
+
+    @Test
+    void cachedId_ShouldKeepAtMostMaxCachedNames() {
+        userLookupIndex.load();
+
+        User dave = new User();
+        dave.setId(4L);
+        dave.setUsername("dave");
+        dave.setEmail("dave@example.com");
+        userLookupIndex.add(dave);
+
+        assertTrue(userLookupIndex.mightContainUsername("dave"));
+        assertTrue(userLookupIndex.cachedNames() <= 2);
+        List<String> names = List.of("alice", "bob", "carol", "dave");
+        for (int i = 0; i < names.size(); i++) {
+            Long id = userLookupIndex.cachedId(names.get(i));
+            assertTrue(id == null || id == i + 1, names.get(i) + " -> " + id);
+        }
+    }
+
+    @Test
+    void refresh_ShouldIndexUsersRegisteredElsewhereAndRescanThePreviousRange() {
+        userLookupIndex.load();
+        assertFalse(userLookupIndex.mightContainUsername("erin"));
+        ResultSet erin = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            when(erin.getLong(1)).thenReturn(5L);
+            when(erin.getString(2)).thenReturn("erin");
+            when(erin.getString(3)).thenReturn("erin@example.com");
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(erin);
+            return null;
+        }).when(jdbcTemplate).query(eq("select id, username, email from users where id > ?"),
+                any(RowCallbackHandler.class), eq(3L));
+
+        userLookupIndex.refresh();
+        userLookupIndex.refresh();
+        userLookupIndex.refresh();
+
+        assertTrue(userLookupIndex.mightContainUsername("erin"));
+        assertTrue(userLookupIndex.mightContainEmail("erin@example.com"));
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(3L));
+        order.verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(5L));
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegativesAndStayNearTargetFalsePositiveRate() {
+        UserLookupIndex.BloomFilter filter = new UserLookupIndex.BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 1_500, "false positives: " + falsePositives);
+    }
+}
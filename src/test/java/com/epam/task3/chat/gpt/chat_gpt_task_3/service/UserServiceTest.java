@@ -1,5 +1,7 @@
 package com.epam.task3.chat.gpt.chat_gpt_task_3.service;
 
+import com.epam.task3.chat.gpt.chat_gpt_task_3.exception.UserAlreadyExistsException;
+import com.epam.task3.chat.gpt.chat_gpt_task_3.model.EventType;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.model.User;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.repo.UserRepository;
 import com.epam.task3.chat.gpt.chat_gpt_task_3.service.UserService;
@@ -8,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Optional;
 
@@ -19,6 +23,18 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FollowGraphService followGraphService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouterTest.unsharded();
+
+    @Mock
+    private UserLookupIndex userLookupIndex;
+
     @InjectMocks
     private UserService userService;
 
@@ -38,6 +54,10 @@ class UserServiceTest {
         targetUser.setId(2L);
         targetUser.setUsername("targetUser");
         targetUser.setEmail("target@example.com");
+
+        when(userLookupIndex.mightContainUsername(anyString())).thenReturn(true);
+        when(userLookupIndex.mightContainEmail(anyString())).thenReturn(true);
+        when(userLookupIndex.cachedId(anyString())).thenReturn(null);
     }
 
     @Test
@@ -51,40 +71,161 @@ class UserServiceTest {
         assertEquals("test@example.com", createdUser.getEmail());
 
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userLookupIndex, times(1)).add(user);
     }
 
     @Test
-    void followUser_ShouldAddTargetUserToFollowingList() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(userRepository.findById(targetUser.getId())).thenReturn(Optional.of(targetUser));
+    void registerUser_ShouldNotQueryDatabase_WhenIndexRulesOutNameAndEmail() {
+        when(userLookupIndex.mightContainUsername(user.getUsername())).thenReturn(false);
+        when(userLookupIndex.mightContainEmail(user.getEmail())).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        userService.registerUser(user.getUsername(), user.getEmail());
+
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void registerUser_ShouldThrowConflict_WhenUsernameIsTaken() {
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+
+        Exception exception = assertThrows(UserAlreadyExistsException.class, () ->
+                userService.registerUser(user.getUsername(), "other@example.com"));
+
+        assertEquals("Username is already taken", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void registerUser_ShouldThrowConflict_WhenEmailIsRegistered() {
+        when(userRepository.existsByEmail(user.getEmail())).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () ->
+                userService.registerUser("newName", user.getEmail()));
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void registerUser_ShouldThrowConflict_WhenConcurrentRegistrationWins() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(UserAlreadyExistsException.class, () ->
+                userService.registerUser(user.getUsername(), user.getEmail()));
+
+        verify(userLookupIndex, never()).add(any(User.class));
+    }
+
+    @Test
+    void registerUser_ShouldClaimDirectoryEntryBeforeInsertingUser_WhenSharded() {
+        ShardRouter router = ShardRouterTest.sharded(2);
+        try {
+            UserService shardedService = new UserService(userRepository, followGraphService, outboxService, router,
+                    userLookupIndex);
+
+            User created = shardedService.registerUser(user.getUsername(), user.getEmail());
+
+            var inOrder = inOrder(userRepository);
+            inOrder.verify(userRepository).insertDirectoryEntry(user.getUsername(), user.getEmail(), created.getId());
+            inOrder.verify(userRepository).insertWithId(created.getId(), user.getUsername(), user.getEmail());
+            verify(userLookupIndex, times(1)).add(created);
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void registerUser_ShouldThrowConflict_WhenNameIsClaimedOnAnotherShard() {
+        ShardRouter router = ShardRouterTest.sharded(2);
+        try {
+            UserService shardedService = new UserService(userRepository, followGraphService, outboxService, router,
+                    userLookupIndex);
+            when(userRepository.insertDirectoryEntry(anyString(), anyString(), anyLong()))
+                    .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+            assertThrows(UserAlreadyExistsException.class, () ->
+                    shardedService.registerUser(user.getUsername(), user.getEmail()));
+
+            verify(userRepository, never()).insertWithId(anyLong(), anyString(), anyString());
+            verify(userLookupIndex, never()).add(any(User.class));
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void registerUser_ShouldReleaseDirectoryEntry_WhenUserInsertFails() {
+        ShardRouter router = ShardRouterTest.sharded(2);
+        try {
+            UserService shardedService = new UserService(userRepository, followGraphService, outboxService, router,
+                    userLookupIndex);
+            when(userRepository.insertWithId(anyLong(), anyString(), anyString()))
+                    .thenThrow(new IllegalStateException("shard down"));
+
+            assertThrows(IllegalStateException.class, () ->
+                    shardedService.registerUser(user.getUsername(), user.getEmail()));
+
+            verify(userRepository, times(1)).deleteDirectoryEntry(eq(user.getUsername()), anyLong());
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    void followUser_ShouldInsertFollowAndUpdateGraph() {
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(userRepository.existsById(targetUser.getId())).thenReturn(true);
+        when(userRepository.insertFollow(user.getId(), targetUser.getId())).thenReturn(1);
+
+        userService.followUser(user.getId(), targetUser.getId());
+
+        verify(followGraphService, times(1)).recordFollow(user.getId(), targetUser.getId());
+        verify(outboxService, times(1)).record(eq(EventType.USER_FOLLOWED), eq(user.getId()), any());
+    }
+
+    @Test
+    void followUser_ShouldNotUpdateGraph_WhenAlreadyFollowing() {
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(userRepository.existsById(targetUser.getId())).thenReturn(true);
+        when(userRepository.insertFollow(user.getId(), targetUser.getId())).thenReturn(0);
 
         userService.followUser(user.getId(), targetUser.getId());
 
-        assertTrue(user.getFollowing().contains(targetUser));
-        verify(userRepository, times(1)).save(user);
+        verify(followGraphService, never()).recordFollow(anyLong(), anyLong());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
     void followUser_ShouldThrowException_WhenUserNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(user.getId())).thenReturn(false);
 
         Exception exception = assertThrows(RuntimeException.class, () ->
                 userService.followUser(user.getId(), targetUser.getId()));
 
         assertEquals("User not found", exception.getMessage());
-        verify(userRepository, never()).save(user);
+        verify(userRepository, never()).insertFollow(anyLong(), anyLong());
     }
 
     @Test
     void followUser_ShouldThrowException_WhenTargetUserNotFound() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(userRepository.findById(targetUser.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(userRepository.existsById(targetUser.getId())).thenReturn(false);
 
         Exception exception = assertThrows(RuntimeException.class, () ->
                 userService.followUser(user.getId(), targetUser.getId()));
 
         assertEquals("Target user not found", exception.getMessage());
-        verify(userRepository, never()).save(user);
+        verify(userRepository, never()).insertFollow(anyLong(), anyLong());
+    }
+
+    @Test
+    void unfollowUser_ShouldDeleteFollowAndUpdateGraph() {
+        when(userRepository.deleteFollow(user.getId(), targetUser.getId())).thenReturn(1);
+
+        userService.unfollowUser(user.getId(), targetUser.getId());
+
+        verify(followGraphService, times(1)).recordUnfollow(user.getId(), targetUser.getId());
     }
 
     @Test
@@ -109,4 +250,24 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findByUsername(user.getUsername());
     }
+
+    @Test
+    void findUserByUsername_ShouldSkipDatabase_WhenIndexRulesNameOut() {
+        when(userLookupIndex.mightContainUsername("unknown")).thenReturn(false);
+
+        assertTrue(userService.findUserByUsername("unknown").isEmpty());
+        assertTrue(userService.isUsernameAvailable("unknown"));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findUserByUsername_ShouldLoadById_WhenIdIsCached() {
+        when(userLookupIndex.cachedId(user.getUsername())).thenReturn(user.getId());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertFalse(userService.isUsernameAvailable(user.getUsername()));
+
+        verify(userRepository, never()).findByUsername(anyString());
+    }
 }
\ No newline at end of file